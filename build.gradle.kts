@@ -2,6 +2,7 @@ plugins {
   id("java")
   id("org.jetbrains.kotlin.jvm") version "1.9.20"
   id("org.jetbrains.intellij") version "1.16.0"
+  id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.liuqi"
@@ -21,6 +22,14 @@ repositories {
   mavenCentral()
 }
 
+dependencies {
+  // Provided by the IDE at runtime; benchmarks run outside the IDE and need it explicitly
+  jmh("org.apache.commons:commons-lang3:3.13.0")
+
+  // Unit tests for the IDE-free parts, such as the DDL parser
+  testImplementation("junit:junit:4.13.2")
+}
+
 java {
   sourceCompatibility = JavaVersion.VERSION_17
 }
@@ -34,6 +43,15 @@ intellij {
   plugins.set(listOf("java"))
 }
 
+// Benchmarks: ./gradlew jmh, results in build/results/jmh/results.json for comparison across commits
+jmh {
+  warmupIterations.set(3)
+  iterations.set(5)
+  fork.set(1)
+  timeOnIteration.set("2s")
+  resultFormat.set("JSON")
+}
+
 tasks {
   // Set the JVM compatibility versions
   withType<JavaCompile> {
@@ -0,0 +1,44 @@
+package com.liuqi.tool.idea.plugin.codegenerator.benchmark;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialect;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialects;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 建表语句生成基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DdlBenchmark {
+    /**
+     * 实体字段数
+     */
+    @Param({"10", "100", "500"})
+    private int fieldCount;
+
+    /**
+     * 数据库方言
+     */
+    @Param({"mysql", "postgresql", "h2"})
+    private String dialectName;
+
+    private SqlDialect dialect;
+
+    private List<FieldModel> fields;
+
+    @Setup
+    public void setup() {
+        fields = SyntheticInputs.fields(fieldCount);
+        dialect = SqlDialects.find(dialectName).orElseThrow();
+    }
+
+    @Benchmark
+    public String createTable() {
+        return dialect.createTable("purchase_order_item", fields);
+    }
+}
@@ -0,0 +1,63 @@
+package com.liuqi.tool.idea.plugin.codegenerator.benchmark;
+
+import com.liuqi.tool.idea.plugin.codegenerator.utils.MyStringUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 名称转换基准测试
+ * 每个实体的每个字段、表名及访问路径都会调用一次
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NamingBenchmark {
+    /**
+     * 名称数量
+     */
+    @Param({"100", "1000"})
+    private int count;
+
+    /**
+     * 每个名称包含的单词数
+     */
+    @Param({"2", "8"})
+    private int words;
+
+    private String[] names;
+
+    @Setup
+    public void setup() {
+        names = SyntheticInputs.camelNames(count, words);
+    }
+
+    @Benchmark
+    public void toUnderLineStr(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(MyStringUtils.toUnderLineStr(name));
+        }
+    }
+
+    @Benchmark
+    public void toKebabCase(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(MyStringUtils.toKebabCase(name));
+        }
+    }
+
+    @Benchmark
+    public void toLowerCamelCase(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(MyStringUtils.toLowerCamelCase(name));
+        }
+    }
+
+    @Benchmark
+    public void firstLetterToLower(Blackhole blackhole) {
+        for (String name : names) {
+            blackhole.consume(MyStringUtils.firstLetterToLower(name));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.liuqi.tool.idea.plugin.codegenerator.benchmark;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.MyStringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试使用的模拟输入
+ * 使用固定的随机种子，保证不同提交之间的结果可以对比
+ */
+final class SyntheticInputs {
+    private static final long SEED = 20231201L;
+
+    private static final String[] WORDS = {"user", "order", "Item", "Amount", "create", "Time", "status", "Code",
+            "HTTP", "Url", "id", "Name", "remark", "tenant", "Dept", "v2", "total", "Price", "XML", "Parser"};
+
+    private static final String[][] TYPES = {{"String", "java.lang.String"}, {"Long", "java.lang.Long"},
+            {"Integer", "java.lang.Integer"}, {"LocalDateTime", "java.time.LocalDateTime"},
+            {"Boolean", "java.lang.Boolean"}, {"Double", "java.lang.Double"}, {"LocalDate", "java.time.LocalDate"}};
+
+    private SyntheticInputs() {
+    }
+
+    /**
+     * 生成驼峰格式的名称，每个名称由wordCount个单词组成，包含缩写及数字
+     */
+    static String[] camelNames(int count, int wordCount) {
+        Random random = new Random(SEED);
+        String[] names = new String[count];
+        for (int i = 0; i < count; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < wordCount; j++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                sb.append(Character.toUpperCase(word.charAt(0))).append(word, 1, word.length());
+            }
+            names[i] = (i % 2 == 0 ? sb.toString() : MyStringUtils.firstLetterToLower(sb.toString())) + (i % 7 == 0 ? i : "");
+        }
+
+        return names;
+    }
+
+    /**
+     * 生成实体字段，第一个字段为id
+     */
+    static List<FieldModel> fields(int count) {
+        Random random = new Random(SEED);
+        List<FieldModel> fields = new ArrayList<>(count);
+        fields.add(FieldModel.builder().setName("id").setType("Long").setQualifiedType("java.lang.Long")
+                .setColumn("id").setComment("主键").setNullable(false).build());
+        for (int i = 1; i < count; i++) {
+            String[] type = TYPES[random.nextInt(TYPES.length)];
+            String name = WORDS[random.nextInt(WORDS.length)].toLowerCase() + WORDS[random.nextInt(WORDS.length)] + i;
+            boolean string = "String".equals(type[0]);
+            fields.add(FieldModel.builder()
+                    .setName(name)
+                    .setType(type[0])
+                    .setQualifiedType(type[1])
+                    .setColumn(MyStringUtils.toUnderLineStr(name))
+                    .setColumnDefinition(string ? "varchar(64)" : "")
+                    .setLength(string ? 64 : null)
+                    .setComment("字段" + i)
+                    .setNullable(random.nextBoolean())
+                    .build());
+        }
+
+        return fields;
+    }
+
+    /**
+     * 类模板，与classes中配置的模板结构一致
+     */
+    static String classTemplate() {
+        StringBuilder sb = new StringBuilder("""
+                @Service
+                public class $T$ServiceImpl extends BaseServiceImpl<$T$DTO, $T$Entity, $T$Mapper, $T$Query>
+                        implements $T$Service {
+                """);
+        for (int i = 0; i < 20; i++) {
+            sb.append("""
+                        /**
+                         * $COMMENT$操作%d，访问路径为/$PATH$/op%d
+                         */
+                        public $T$DTO op%d($T$Query query) {
+                            return this.findOne(query).map($T$DTO::new).orElse(null);
+                        }
+
+                    """.formatted(i, i, i));
+        }
+
+        return sb.append("}\n").toString();
+    }
+
+    /**
+     * 使用片段的类模板，与classTemplate渲染结果一致，类头部及方法块放在片段中
+     */
+    static String includingClassTemplate() {
+        return """
+                $@classHeader$
+                $@crud$}
+                """;
+    }
+
+    /**
+     * includingClassTemplate引用的片段，key为片段名称
+     */
+    static Map<String, String> classFragments() {
+        String template = classTemplate();
+        int bodyStart = template.indexOf('{') + 2;
+        return Map.of("classHeader", template.substring(0, bodyStart - 1),
+                "crud", template.substring(bodyStart, template.lastIndexOf('}')));
+    }
+
+    /**
+     * 前端页面模板，包含表格、查询表单及编辑表单三个字段循环块
+     */
+    static String pageTemplate() {
+        StringBuilder sb = new StringBuilder("""
+                <template>
+                  <div class="page">
+                    <el-form :model="query" inline>$$$loopFields
+                      <el-form-item label="$FIELD_NAME$" prop="$FIELD_PROP$">
+                        <el-input v-model="query.$FIELD_PROP$" placeholder="请输入$FIELD_COMMENT$"/>
+                      </el-form-item>$$$
+                    </el-form>
+                    <el-table :data="list">$$$loopFields
+                      <el-table-column prop="$FIELD_PROP$" label="$FIELD_NAME$" :sortable="$FIELD_NULLABLE$"/>$$$
+                    </el-table>
+                    <el-dialog title="$COMMENT$">
+                      <el-form :model="form">$$$loopFields
+                        <el-form-item label="$FIELD_NAME$" prop="$FIELD_PROP$" :required="!$FIELD_NULLABLE$">
+                          <el-input v-model="form.$FIELD_PROP$"/><!-- $FIELD_TYPE$ $FIELD_COLUMN$ -->
+                        </el-form-item>$$$
+                      </el-form>
+                    </el-dialog>
+                  </div>
+                </template>
+                <script>
+                export default {
+                  name: '$PATH$',
+                  data() {
+                    return { list: [], query: {}, form: {} }
+                  },
+                  methods: {
+                """);
+        for (int i = 0; i < 30; i++) {
+            sb.append("""
+                        method%d() {
+                          return this.$http.post('/$PATH$/method%d', this.query)$BR$
+                        },
+                    """.formatted(i, i));
+        }
+
+        return sb.append("  }\n}\n</script>\n").toString();
+    }
+}
@@ -0,0 +1,96 @@
+package com.liuqi.tool.idea.plugin.codegenerator.benchmark;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.template.CompiledTemplate;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateCompiler;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板渲染基准测试
+ * 包括类模板的占位符替换、片段引用以及前端页面模板的loopFields展开
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TemplateBenchmark {
+    /**
+     * 实体字段数
+     */
+    @Param({"10", "100", "500"})
+    private int fieldCount;
+
+    private String classTemplate;
+
+    private String pageTemplate;
+
+    private CompiledTemplate compiledPage;
+
+    private CompiledTemplate includingClass;
+
+    private Map<String, CompiledTemplate> fragments;
+
+    private Map<String, String> variables;
+
+    private List<Map<String, String>> items;
+
+    @Setup
+    public void setup() {
+        classTemplate = SyntheticInputs.classTemplate();
+        pageTemplate = SyntheticInputs.pageTemplate();
+        compiledPage = TemplateCompiler.compile(pageTemplate);
+        includingClass = TemplateCompiler.compile(SyntheticInputs.includingClassTemplate());
+        fragments = new HashMap<>();
+        SyntheticInputs.classFragments().forEach((name, fragment) -> fragments.put(name, TemplateCompiler.parse(fragment)));
+        variables = Map.of("T", "PurchaseOrderItem", "PATH", "purchase-order-item", "COMMENT", "采购订单明细",
+                "BR", "\n");
+        items = SyntheticInputs.fields(fieldCount).stream()
+                .map(FieldModel::toTemplateVariables)
+                .toList();
+    }
+
+    /**
+     * 类模板渲染，使用缓存的编译结果
+     */
+    @Benchmark
+    public String renderClass() {
+        return TemplateCompiler.compile(classTemplate).render(variables);
+    }
+
+    /**
+     * 类模板编译及渲染，不使用缓存
+     */
+    @Benchmark
+    public String parseAndRenderClass() {
+        return TemplateCompiler.parse(classTemplate).render(variables);
+    }
+
+    /**
+     * 引用片段的类模板渲染，片段已编译
+     */
+    @Benchmark
+    public String renderClassWithFragments() {
+        return includingClass.render(new TemplateContext(variables).fragments(fragments::get));
+    }
+
+    /**
+     * 前端页面渲染，包含三个字段循环块
+     */
+    @Benchmark
+    public String renderPage() {
+        return compiledPage.render(new TemplateContext(variables).loop("loopFields", items));
+    }
+
+    /**
+     * 前端页面编译及渲染，不使用缓存
+     */
+    @Benchmark
+    public String parseAndRenderPage() {
+        return TemplateCompiler.parse(pageTemplate).render(new TemplateContext(variables).loop("loopFields", items));
+    }
+}
@@ -4,13 +4,19 @@ import com.intellij.codeInsight.hint.HintManager;
 import com.intellij.openapi.actionSystem.AnAction;
 import com.intellij.openapi.actionSystem.AnActionEvent;
 import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.actionSystem.LangDataKeys;
 import com.intellij.openapi.editor.Editor;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.FileIndexFacade;
 import com.intellij.psi.*;
+import com.intellij.psi.search.GlobalSearchScope;
 import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * 基础Action
  *
@@ -83,4 +89,41 @@ public abstract class AbstractAction extends AnAction {
 
         return classes[0];
     }
+
+    /**
+     * 获取Project视图中选中的类
+     * 选中的是目录或者包时，递归获取其中所有的Java类
+     */
+    protected Set<PsiClass> getSelectedClasses(AnActionEvent anActionEvent) {
+        Set<PsiClass> result = new LinkedHashSet<>();
+        PsiElement[] elements = anActionEvent.getData(LangDataKeys.PSI_ELEMENT_ARRAY);
+        if (null == elements) {
+            return result;
+        }
+
+        for (PsiElement element : elements) {
+            collectClasses(element, result);
+        }
+
+        return result;
+    }
+
+    private void collectClasses(PsiElement element, Set<PsiClass> result) {
+        if (element instanceof PsiClass psiClass) {
+            result.add(psiClass);
+        } else if (element instanceof PsiJavaFile javaFile) {
+            result.addAll(Arrays.asList(javaFile.getClasses()));
+        } else if (element instanceof PsiDirectory directory) {
+            for (PsiFile file : directory.getFiles()) {
+                collectClasses(file, result);
+            }
+            for (PsiDirectory subDirectory : directory.getSubdirectories()) {
+                collectClasses(subDirectory, result);
+            }
+        } else if (element instanceof PsiPackage psiPackage) {
+            for (PsiDirectory directory : psiPackage.getDirectories(GlobalSearchScope.projectScope(element.getProject()))) {
+                collectClasses(directory, result);
+            }
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.liuqi.tool.idea.plugin.codegenerator.actions;
+
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.LangDataKeys;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.EntityGenerator;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.GenerationTask;
+import org.apache.commons.collections.CollectionUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * 批量代码生成
+ * 在Project视图中选中多个实体类或者包后，一次性为其中所有的实体类生成代码
+ */
+public class BatchGeneratorAction extends AbstractAction {
+    private static final String TITLE = "Stone Code Generator";
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent anActionEvent) {
+        PsiElement[] elements = anActionEvent.getData(LangDataKeys.PSI_ELEMENT_ARRAY);
+        anActionEvent.getPresentation().setEnabledAndVisible(null != anActionEvent.getProject()
+                && null != elements && 0 != elements.length);
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent anActionEvent) {
+        project = anActionEvent.getProject();
+        if (null == project) {
+            return;
+        }
+
+        // 整个批次只加载一次配置
+        GeneratorConfig config = GeneratorConfig.load(project);
+        if (CollectionUtils.isEmpty(config.getClasses())) {
+            Messages.showErrorDialog(project, "config.yaml中未配置classes清单", TITLE);
+            return;
+        }
+
+        // 只处理被tableAnnotation注解的类
+        List<PsiClass> entities = this.getSelectedClasses(anActionEvent).stream()
+                .filter(aClass -> EntityGenerator.isEntity(config, aClass))
+                .toList();
+        if (entities.isEmpty()) {
+            Messages.showInfoMessage(project, "选中的内容中没有需要生成代码的实体类", TITLE);
+            return;
+        }
+
+        ProgressManager.getInstance().run(new GenerationTask(project, config, entities,
+                msg -> Messages.showWarningDialog(project, msg, TITLE)));
+    }
+}
@@ -0,0 +1,12 @@
+package com.liuqi.tool.idea.plugin.codegenerator.actions;
+
+/**
+ * 预览代码生成结果
+ * 生成结果只放在内存中，与已有文件对比确认后才写入项目
+ */
+public class PreviewGeneratorAction extends GeneratorAction {
+    @Override
+    protected boolean isPreview() {
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package com.liuqi.tool.idea.plugin.codegenerator.actions;
+
+import com.intellij.ide.util.PackageChooserDialog;
+import com.intellij.openapi.actionSystem.ActionUpdateThread;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiPackage;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.ReverseGenerationTask;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 根据建表语句生成实体类
+ * 在Project视图中选中sql文件后，解析其中的建表语句并在选定的包中创建实体类
+ */
+public class ReverseGeneratorAction extends AbstractAction {
+    private static final String TITLE = "Stone Code Generator";
+
+    @Override
+    public @NotNull ActionUpdateThread getActionUpdateThread() {
+        return ActionUpdateThread.BGT;
+    }
+
+    @Override
+    public void update(@NotNull AnActionEvent anActionEvent) {
+        VirtualFile file = anActionEvent.getData(CommonDataKeys.VIRTUAL_FILE);
+        anActionEvent.getPresentation().setEnabledAndVisible(null != anActionEvent.getProject()
+                && null != file && !file.isDirectory() && "sql".equalsIgnoreCase(file.getExtension()));
+    }
+
+    @Override
+    public void actionPerformed(@NotNull AnActionEvent anActionEvent) {
+        project = anActionEvent.getProject();
+        VirtualFile file = anActionEvent.getData(CommonDataKeys.VIRTUAL_FILE);
+        if (null == project || null == file) {
+            return;
+        }
+
+        GeneratorConfig config = GeneratorConfig.load(project);
+
+        // 选择实体类所在包，默认为basePackage下的entity包
+        PackageChooserDialog dialog = new PackageChooserDialog("选择实体类所在包", project);
+        if (StringUtils.isNotBlank(config.getBasePackage())) {
+            dialog.selectPackage(config.getBasePackage() + ".entity");
+        }
+        if (!dialog.showAndGet() || null == dialog.getSelectedPackage()) {
+            return;
+        }
+
+        PsiPackage psiPackage = dialog.getSelectedPackage();
+        PsiDirectory[] directories = psiPackage.getDirectories(GlobalSearchScope.projectScope(project));
+        if (0 == directories.length) {
+            Messages.showErrorDialog(project, "包" + psiPackage.getQualifiedName() + "不在项目中", TITLE);
+            return;
+        }
+
+        ProgressManager.getInstance().run(new ReverseGenerationTask(project, config, file, directories[0],
+                psiPackage.getQualifiedName(), msg -> Messages.showWarningDialog(project, msg, TITLE)));
+    }
+}
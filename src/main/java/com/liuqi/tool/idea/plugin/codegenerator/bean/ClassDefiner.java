@@ -1,5 +1,8 @@
 package com.liuqi.tool.idea.plugin.codegenerator.bean;
 
+import com.liuqi.tool.idea.plugin.codegenerator.template.CompiledTemplate;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateCompiler;
+
 import java.util.List;
 
 /**
@@ -18,6 +21,16 @@ public class ClassDefiner {
 
     private String comment;
 
+    /**
+     * 开启fastWrite时是否仍然构建PSI并格式化，配置了like或者imports时总是构建
+     */
+    private boolean psi;
+
+    /**
+     * 编译后的模板，首次使用时编译
+     */
+    private CompiledTemplate compiledTemplate;
+
     public String getName() {
         return name;
     }
@@ -60,9 +73,20 @@ public class ClassDefiner {
 
     public ClassDefiner setTemplate(String template) {
         this.template = template;
+        this.compiledTemplate = null;
         return this;
     }
 
+    /**
+     * 获取编译后的模板
+     */
+    public CompiledTemplate getCompiledTemplate() {
+        if (null == compiledTemplate) {
+            compiledTemplate = TemplateCompiler.compile(template);
+        }
+        return compiledTemplate;
+    }
+
     public String getComment() {
         return comment;
     }
@@ -71,4 +95,13 @@ public class ClassDefiner {
         this.comment = comment;
         return this;
     }
+
+    public boolean isPsi() {
+        return psi;
+    }
+
+    public ClassDefiner setPsi(boolean psi) {
+        this.psi = psi;
+        return this;
+    }
 }
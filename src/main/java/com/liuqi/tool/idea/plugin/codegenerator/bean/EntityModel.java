@@ -0,0 +1,69 @@
+package com.liuqi.tool.idea.plugin.codegenerator.bean;
+
+import java.util.List;
+
+/**
+ * 实体模型
+ * 从实体类中一次性提取出的类及字段信息，各个输出（类、建表语句、前端界面）都基于该模型生成；创建后不可修改
+ */
+public class EntityModel {
+    /**
+     * 实体类名称，如UserEntity
+     */
+    private final String className;
+
+    /**
+     * 实体名称，即去掉Entity后的类名，如User
+     */
+    private final String name;
+
+    /**
+     * 实体注释，取自commentAnnotation
+     */
+    private final String comment;
+
+    /**
+     * 表名，取自tableAnnotation，未配置时根据实体名称转换
+     */
+    private final String tableName;
+
+    /**
+     * 所有字段，包括继承的字段
+     */
+    private final List<FieldModel> fields;
+
+    public EntityModel(String className, String name, String comment, String tableName, List<FieldModel> fields) {
+        this.className = className;
+        this.name = name;
+        this.comment = comment;
+        this.tableName = tableName;
+        this.fields = List.copyOf(fields);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<FieldModel> getFields() {
+        return fields;
+    }
+
+    /**
+     * 获取实体类本身声明的字段
+     */
+    public List<FieldModel> getDeclaredFields() {
+        return fields.stream().filter(FieldModel::isDeclared).toList();
+    }
+}
@@ -0,0 +1,193 @@
+package com.liuqi.tool.idea.plugin.codegenerator.bean;
+
+import java.util.Map;
+
+/**
+ * 实体字段信息
+ * 在实体类中提取一次，供各个模板使用；创建后不可修改，通过Builder创建
+ */
+public class FieldModel {
+    /**
+     * 属性名称
+     */
+    private final String name;
+
+    /**
+     * 简单类型名称，如String、LocalDateTime
+     */
+    private final String type;
+
+    /**
+     * 全限定类型名称
+     */
+    private final String qualifiedType;
+
+    /**
+     * 字段对应的列名
+     */
+    private final String column;
+
+    /**
+     * Column注解中的columnDefinition，未配置时为空字符串
+     */
+    private final String columnDefinition;
+
+    /**
+     * 字段长度，取自columnDefinition中的char(n)、varchar(n)或者Column注解的length，未配置时为null
+     */
+    private final Integer length;
+
+    /**
+     * 字段注释，取自commentAnnotation
+     */
+    private final String comment;
+
+    /**
+     * 是否允许为空
+     */
+    private final boolean nullable;
+
+    /**
+     * 是否在实体类本身中声明，继承自父类的字段为false
+     */
+    private final boolean declared;
+
+    private FieldModel(Builder builder) {
+        this.name = builder.name;
+        this.type = builder.type;
+        this.qualifiedType = builder.qualifiedType;
+        this.column = builder.column;
+        this.columnDefinition = builder.columnDefinition;
+        this.length = builder.length;
+        this.comment = builder.comment;
+        this.nullable = builder.nullable;
+        this.declared = builder.declared;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getQualifiedType() {
+        return qualifiedType;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public String getColumnDefinition() {
+        return columnDefinition;
+    }
+
+    public Integer getLength() {
+        return length;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public boolean isDeclared() {
+        return declared;
+    }
+
+    /**
+     * 转换成循环块中可以使用的占位符
+     * FIELD_NAME与FIELD_COMMENT为字段注释，FIELD_PROP为属性名称，未配置长度时FIELD_LENGTH为空
+     */
+    public Map<String, String> toTemplateVariables() {
+        return Map.of("FIELD_NAME", comment,
+                "FIELD_COMMENT", comment,
+                "FIELD_PROP", name,
+                "FIELD_TYPE", type,
+                "FIELD_QUALIFIED_TYPE", qualifiedType,
+                "FIELD_COLUMN", column,
+                "FIELD_LENGTH", null == length ? "" : String.valueOf(length),
+                "FIELD_NULLABLE", String.valueOf(nullable));
+    }
+
+    public static class Builder {
+        private String name;
+
+        private String type;
+
+        private String qualifiedType;
+
+        private String column;
+
+        private String columnDefinition = "";
+
+        private Integer length;
+
+        private String comment = "";
+
+        private boolean nullable = true;
+
+        private boolean declared = true;
+
+        private Builder() {
+        }
+
+        public Builder setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder setType(String type) {
+            this.type = type;
+            return this;
+        }
+
+        public Builder setQualifiedType(String qualifiedType) {
+            this.qualifiedType = qualifiedType;
+            return this;
+        }
+
+        public Builder setColumn(String column) {
+            this.column = column;
+            return this;
+        }
+
+        public Builder setColumnDefinition(String columnDefinition) {
+            this.columnDefinition = columnDefinition;
+            return this;
+        }
+
+        public Builder setLength(Integer length) {
+            this.length = length;
+            return this;
+        }
+
+        public Builder setComment(String comment) {
+            this.comment = comment;
+            return this;
+        }
+
+        public Builder setNullable(boolean nullable) {
+            this.nullable = nullable;
+            return this;
+        }
+
+        public Builder setDeclared(boolean declared) {
+            this.declared = declared;
+            return this;
+        }
+
+        public FieldModel build() {
+            return new FieldModel(this);
+        }
+    }
+}
@@ -1,15 +1,9 @@
 package com.liuqi.tool.idea.plugin.codegenerator.bean;
 
 import com.intellij.openapi.project.Project;
-import com.intellij.psi.PsiFile;
-import com.intellij.psi.search.PsiShortNamesCache;
-import org.apache.commons.collections.MapUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.Yaml;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GeneratorConfigService;
 
 import java.util.List;
-import java.util.Map;
 
 /**
  * 代码生成配置
@@ -18,33 +12,12 @@ import java.util.Map;
  * @version V1.0
  **/
 public class GeneratorConfig {
-    private static final Logger log = LoggerFactory.getLogger(GeneratorConfig.class);
-
     /**
-     * 从codeGenerator.properties中加载配置文件
+     * 从code-generator/config.yaml中加载配置文件
+     * 配置文件未变化时直接返回缓存的配置，调用方不应修改返回的配置
      */
     public static GeneratorConfig load(Project project) {
-        PsiFile[] files = PsiShortNamesCache.getInstance(project).getFilesByName("config.yaml");
-        for (PsiFile file : files) {
-            if (!file.getContainingDirectory().getName().equals("code-generator")) {
-                continue;
-            }
-
-            Map<String, Object> obj = new Yaml().load(file.getText());
-            log.debug("加载配置：{}", obj);
-
-            GeneratorConfig config = new GeneratorConfig();
-            config.setClasses((List<String>) obj.get("classes"))
-                    .setBasePackage(MapUtils.getString(obj, "basePackage"))
-                    .setTableAnnotation(MapUtils.getString(obj, "tableAnnotation"))
-                    .setCommentAnnotation(MapUtils.getString(obj, "commentAnnotation"))
-                    .setWithLiquibase(MapUtils.getBooleanValue(obj, "withLiquibase", false))
-                    .setPageTemplate(MapUtils.getString(obj, "pageTemplate"))
-                    .setLiquibaseFile(MapUtils.getString(obj, "liquibaseFile", "liquibase/master.xml"));
-            return config;
-        }
-
-        return new GeneratorConfig();
+        return GeneratorConfigService.getInstance(project).getConfig();
     }
 
     /**
@@ -68,6 +41,11 @@ public class GeneratorConfig {
      */
     private String commentAnnotation;
 
+    /**
+     * 列名注解，注解的value为列名；根据建表语句生成实体时，属性名无法还原成列名的属性会标注该注解，生成代码时优先使用注解中的列名
+     */
+    private String columnAnnotation;
+
     /**
      * 是否包含liquibase
      */
@@ -83,6 +61,41 @@ public class GeneratorConfig {
      */
     private String liquibaseFile = "liquibase/master.xml";
 
+    /**
+     * withLiquibase为true时生效；是否将每张表的建表语句保存到单独的文件中，并在liquibaseFile中引用
+     */
+    private Boolean liquibaseSplit = false;
+
+    /**
+     * liquibaseSplit为true时生效；每张表的changelog文件保存目录，不配置则默认是liquibase/changes
+     */
+    private String liquibaseDir = "liquibase/changes";
+
+    /**
+     * liquibaseSplit为true时生效；为true时在liquibaseFile中通过includeAll引用整个目录，否则逐个文件include
+     */
+    private Boolean liquibaseIncludeAll = false;
+
+    /**
+     * withLiquibase为true时生效；表已存在时是否与上次生成的表结构对比，生成只包含新增、修改及删除列的changeSet
+     */
+    private Boolean liquibaseDiff = false;
+
+    /**
+     * 是否直接将渲染后的文本写入文件；为true时只有类生成配置中配置了psi、like或者imports的文件才构建PSI并格式化
+     */
+    private Boolean fastWrite = false;
+
+    /**
+     * 是否在写入完成后再统一格式化及优化导入；为true时渲染阶段不再逐个格式化，由后台任务对本次写入的所有文件统一处理
+     */
+    private Boolean deferFormat = false;
+
+    /**
+     * 建表语句使用的数据库方言，支持mysql、postgresql、h2
+     */
+    private String dialect = "mysql";
+
     public String getBasePackage() {
         return basePackage;
     }
@@ -119,6 +132,15 @@ public class GeneratorConfig {
         return this;
     }
 
+    public String getColumnAnnotation() {
+        return columnAnnotation;
+    }
+
+    public GeneratorConfig setColumnAnnotation(String columnAnnotation) {
+        this.columnAnnotation = columnAnnotation;
+        return this;
+    }
+
     public Boolean getWithLiquibase() {
         return withLiquibase;
     }
@@ -145,4 +167,67 @@ public class GeneratorConfig {
         this.pageTemplate = pageTemplate;
         return this;
     }
+
+    public Boolean getLiquibaseSplit() {
+        return liquibaseSplit;
+    }
+
+    public GeneratorConfig setLiquibaseSplit(Boolean liquibaseSplit) {
+        this.liquibaseSplit = liquibaseSplit;
+        return this;
+    }
+
+    public String getLiquibaseDir() {
+        return liquibaseDir;
+    }
+
+    public GeneratorConfig setLiquibaseDir(String liquibaseDir) {
+        this.liquibaseDir = liquibaseDir;
+        return this;
+    }
+
+    public Boolean getLiquibaseIncludeAll() {
+        return liquibaseIncludeAll;
+    }
+
+    public GeneratorConfig setLiquibaseIncludeAll(Boolean liquibaseIncludeAll) {
+        this.liquibaseIncludeAll = liquibaseIncludeAll;
+        return this;
+    }
+
+    public Boolean getLiquibaseDiff() {
+        return liquibaseDiff;
+    }
+
+    public GeneratorConfig setLiquibaseDiff(Boolean liquibaseDiff) {
+        this.liquibaseDiff = liquibaseDiff;
+        return this;
+    }
+
+    public Boolean getFastWrite() {
+        return fastWrite;
+    }
+
+    public GeneratorConfig setFastWrite(Boolean fastWrite) {
+        this.fastWrite = fastWrite;
+        return this;
+    }
+
+    public Boolean getDeferFormat() {
+        return deferFormat;
+    }
+
+    public GeneratorConfig setDeferFormat(Boolean deferFormat) {
+        this.deferFormat = deferFormat;
+        return this;
+    }
+
+    public String getDialect() {
+        return dialect;
+    }
+
+    public GeneratorConfig setDialect(String dialect) {
+        this.dialect = dialect;
+        return this;
+    }
 }
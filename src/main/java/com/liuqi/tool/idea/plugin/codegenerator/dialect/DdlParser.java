@@ -0,0 +1,506 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 建表语句解析器
+ * 从Reader中逐条读取sql语句，只解析create table及comment on语句；其它语句（如insert）边读边丢弃，
+ * 整个文件不会加载到内存中，内存中只保留当前语句及已解析出的表结构
+ *
+ * <pre>
+ * DdlParser parser = new DdlParser(reader);
+ * while (parser.next()) {
+ *     // 更新进度
+ * }
+ * List&lt;ParsedTable&gt; tables = parser.getTables();
+ * </pre>
+ */
+public class DdlParser {
+    /**
+     * 语句开头达到该长度后判断是否需要继续保留语句内容
+     */
+    private static final int PREFIX_LENGTH = 8;
+
+    private static final Set<String> CONSTRAINT_KEYWORDS = Set.of("primary", "key", "unique", "index", "constraint",
+            "foreign", "check", "fulltext", "spatial", "exclude", "period");
+
+    /**
+     * 可以出现在类型名称之后的修饰词，如bigint unsigned、double precision、timestamp with time zone
+     */
+    private static final Set<String> TYPE_MODIFIERS = Set.of("unsigned", "signed", "zerofill", "varying", "precision",
+            "with", "without", "time", "zone");
+
+    private final PushbackReader reader;
+
+    /**
+     * 当前语句内容，注释已去掉，连续的空白合并为一个空格
+     */
+    private final StringBuilder statement = new StringBuilder();
+
+    /**
+     * 小写表名 -> 表结构
+     */
+    private final Map<String, ParsedTable> tables = new LinkedHashMap<>();
+
+    /**
+     * 当前语句是否需要保留内容，不是create或者comment开头的语句只读取不保留
+     */
+    private boolean buffering;
+
+    /**
+     * 已读取的字符数
+     */
+    private long offset;
+
+    public DdlParser(Reader reader) {
+        this.reader = new PushbackReader(reader instanceof BufferedReader ? reader : new BufferedReader(reader), 1);
+    }
+
+    /**
+     * 读取并解析下一条语句
+     *
+     * @return 已读取到文件末尾时返回false
+     */
+    public boolean next() throws IOException {
+        statement.setLength(0);
+        buffering = true;
+        int c = this.read();
+        if (-1 == c) {
+            return false;
+        }
+
+        for (; -1 != c && ';' != c; c = this.read()) {
+            if ('-' == c && this.peek() == '-' || '#' == c) {
+                this.skipLine();
+                this.appendSpace();
+            } else if ('/' == c && this.peek() == '*') {
+                this.skipBlockComment();
+                this.appendSpace();
+            } else if ('\'' == c || '"' == c || '`' == c) {
+                this.readQuoted((char) c);
+            } else if (Character.isWhitespace(c)) {
+                this.appendSpace();
+            } else {
+                this.append((char) c);
+            }
+        }
+
+        if (buffering && !statement.isEmpty()) {
+            this.parse(statement.toString().trim());
+        }
+
+        return true;
+    }
+
+    /**
+     * 已读取的字符数，用于计算进度
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * 获取已解析出的表结构，顺序与建表语句一致
+     */
+    public List<ParsedTable> getTables() {
+        return new ArrayList<>(tables.values());
+    }
+
+    private int read() throws IOException {
+        int c = reader.read();
+        if (-1 != c) {
+            offset++;
+        }
+
+        return c;
+    }
+
+    private int peek() throws IOException {
+        int c = reader.read();
+        if (-1 != c) {
+            reader.unread(c);
+        }
+
+        return c;
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        do {
+            c = this.read();
+        } while (-1 != c && '\n' != c);
+    }
+
+    private void skipBlockComment() throws IOException {
+        this.read();
+        int previous = 0;
+        for (int c = this.read(); -1 != c; c = this.read()) {
+            if ('*' == previous && '/' == c) {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    /**
+     * 读取引号中的内容，保留引号；支持两个引号及反斜杠转义
+     */
+    private void readQuoted(char quote) throws IOException {
+        this.append(quote);
+        for (int c = this.read(); -1 != c; c = this.read()) {
+            this.append((char) c);
+            if ('\\' == c && '\'' == quote) {
+                int escaped = this.read();
+                if (-1 != escaped) {
+                    this.append((char) escaped);
+                }
+            } else if (quote == c) {
+                if (this.peek() != quote) {
+                    return;
+                }
+                this.append((char) this.read());
+            }
+        }
+    }
+
+    private void appendSpace() {
+        if (!statement.isEmpty() && ' ' != statement.charAt(statement.length() - 1)) {
+            this.append(' ');
+        }
+    }
+
+    private void append(char c) {
+        if (!buffering) {
+            return;
+        }
+
+        statement.append(c);
+        if (PREFIX_LENGTH == statement.length()) {
+            String prefix = statement.toString().toLowerCase(Locale.ROOT);
+            buffering = prefix.startsWith("create ") || prefix.startsWith("comment ");
+            if (!buffering) {
+                statement.setLength(0);
+            }
+        }
+    }
+
+    private void parse(String sql) {
+        List<Token> tokens = tokenize(sql);
+        if (tokens.size() < 3) {
+            return;
+        }
+
+        if (tokens.get(0).is("create")) {
+            this.parseCreateTable(tokens);
+        } else if (tokens.get(0).is("comment") && tokens.get(1).is("on")) {
+            this.parseComment(tokens);
+        }
+    }
+
+    /**
+     * create [temporary] table [if not exists] name (columns) [options]
+     */
+    private void parseCreateTable(List<Token> tokens) {
+        int i = 1;
+        while (i < tokens.size() && !tokens.get(i).is("table")) {
+            if (!tokens.get(i).is("temporary") && !tokens.get(i).is("temp") && !tokens.get(i).is("unlogged")) {
+                // create index、create view等
+                return;
+            }
+            i++;
+        }
+        i++;
+        if (i + 2 < tokens.size() && tokens.get(i).is("if") && tokens.get(i + 1).is("not")) {
+            i += 3;
+        }
+
+        List<String> name = new ArrayList<>();
+        i = readQualifiedName(tokens, i, name);
+        if (name.isEmpty() || i >= tokens.size() || !tokens.get(i).isSymbol('(')) {
+            return;
+        }
+
+        // 按最外层的逗号拆分列及约束定义
+        List<List<Token>> items = new ArrayList<>();
+        List<Token> item = new ArrayList<>();
+        int depth = 0;
+        for (i++; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            if (token.isSymbol('(')) {
+                depth++;
+            } else if (token.isSymbol(')')) {
+                if (0 == depth) {
+                    break;
+                }
+                depth--;
+            } else if (token.isSymbol(',') && 0 == depth) {
+                items.add(item);
+                item = new ArrayList<>();
+                continue;
+            }
+            item.add(token);
+        }
+        items.add(item);
+
+        List<ParsedTable.Column> columns = new ArrayList<>();
+        Set<String> primaryKeys = new HashSet<>();
+        for (List<Token> definition : items) {
+            if (definition.isEmpty()) {
+                continue;
+            }
+
+            Token first = definition.get(0);
+            if (first.kind() == Token.Kind.WORD && CONSTRAINT_KEYWORDS.contains(first.lower())) {
+                collectPrimaryKeys(definition, primaryKeys);
+            } else {
+                ParsedTable.Column column = parseColumn(definition);
+                if (null != column) {
+                    columns.add(column);
+                }
+            }
+        }
+
+        // 表定义中单独声明的主键列不允许为空
+        if (!primaryKeys.isEmpty()) {
+            columns.replaceAll(column -> primaryKeys.contains(column.name().toLowerCase(Locale.ROOT))
+                    ? new ParsedTable.Column(column.name(), column.type(), false, column.comment())
+                    : column);
+        }
+
+        // 表选项中的注释：comment = 'xxx'
+        String comment = "";
+        for (i++; i + 1 < tokens.size(); i++) {
+            if (tokens.get(i).is("comment")) {
+                Token value = tokens.get(i + 1).isSymbol('=') && i + 2 < tokens.size() ? tokens.get(i + 2) : tokens.get(i + 1);
+                if (value.kind() == Token.Kind.STRING) {
+                    comment = value.text();
+                }
+                break;
+            }
+        }
+
+        String tableName = name.get(name.size() - 1);
+        tables.put(tableName.toLowerCase(Locale.ROOT), new ParsedTable(tableName, comment, columns));
+    }
+
+    /**
+     * 解析列定义：name type[(args)] [modifiers] [not null] [comment 'xxx'] ...
+     */
+    private static ParsedTable.Column parseColumn(List<Token> definition) {
+        if (definition.size() < 2 || definition.get(0).kind() == Token.Kind.SYMBOL) {
+            return null;
+        }
+
+        String name = definition.get(0).text();
+        StringBuilder type = new StringBuilder(definition.get(1).lower());
+        int i = readTypeArguments(definition, 2, type);
+        while (i < definition.size() && definition.get(i).kind() == Token.Kind.WORD
+                && TYPE_MODIFIERS.contains(definition.get(i).lower())) {
+            type.append(' ').append(definition.get(i).lower());
+            i = readTypeArguments(definition, i + 1, type);
+        }
+
+        boolean nullable = true;
+        String comment = "";
+        int depth = 0;
+        for (; i < definition.size(); i++) {
+            Token token = definition.get(i);
+            if (token.isSymbol('(')) {
+                depth++;
+            } else if (token.isSymbol(')')) {
+                depth--;
+            } else if (0 != depth) {
+                continue;
+            } else if (token.is("primary") || token.is("not") && i + 1 < definition.size() && definition.get(i + 1).is("null")) {
+                nullable = false;
+            } else if (token.is("comment") && i + 1 < definition.size() && definition.get(i + 1).kind() == Token.Kind.STRING) {
+                comment = definition.get(++i).text();
+            }
+        }
+
+        return new ParsedTable.Column(name, type.toString(), nullable, comment);
+    }
+
+    /**
+     * 读取类型参数，如(64)、(24,4)，没有参数时直接返回
+     */
+    private static int readTypeArguments(List<Token> definition, int i, StringBuilder type) {
+        if (i >= definition.size() || !definition.get(i).isSymbol('(')) {
+            return i;
+        }
+
+        type.append('(');
+        for (i++; i < definition.size() && !definition.get(i).isSymbol(')'); i++) {
+            type.append(definition.get(i).isSymbol(',') ? "," : definition.get(i).lower());
+        }
+        type.append(')');
+
+        return i + 1;
+    }
+
+    /**
+     * primary key (a, b)
+     */
+    private static void collectPrimaryKeys(List<Token> definition, Set<String> primaryKeys) {
+        int i = 0;
+        if (definition.get(0).is("constraint")) {
+            i = 2;
+        }
+        if (i + 2 >= definition.size() || !definition.get(i).is("primary") || !definition.get(i + 1).is("key")) {
+            return;
+        }
+
+        for (i += 2; i < definition.size() && !definition.get(i).isSymbol(')'); i++) {
+            Token token = definition.get(i);
+            if (token.kind() == Token.Kind.WORD || token.kind() == Token.Kind.IDENTIFIER) {
+                primaryKeys.add(token.lower());
+            }
+        }
+    }
+
+    /**
+     * comment on table t is 'xxx'；comment on column t.c is 'xxx'
+     */
+    private void parseComment(List<Token> tokens) {
+        boolean column = tokens.get(2).is("column");
+        if (!column && !tokens.get(2).is("table")) {
+            return;
+        }
+
+        List<String> name = new ArrayList<>();
+        int i = readQualifiedName(tokens, 3, name);
+        if (i + 1 >= tokens.size() || !tokens.get(i).is("is") || name.size() < (column ? 2 : 1)) {
+            return;
+        }
+
+        Token value = tokens.get(i + 1);
+        String comment = value.kind() == Token.Kind.STRING ? value.text() : "";
+        String tableName = name.get(name.size() - (column ? 2 : 1)).toLowerCase(Locale.ROOT);
+        tables.computeIfPresent(tableName, (key, table) -> column
+                ? table.withColumnComment(name.get(name.size() - 1), comment)
+                : table.withComment(comment));
+    }
+
+    /**
+     * 读取以点分隔的名称，如schema.table
+     */
+    private static int readQualifiedName(List<Token> tokens, int i, List<String> name) {
+        while (i < tokens.size()) {
+            Token token = tokens.get(i);
+            if (token.kind() != Token.Kind.WORD && token.kind() != Token.Kind.IDENTIFIER) {
+                break;
+            }
+            name.add(token.text());
+            i++;
+            if (i >= tokens.size() || !tokens.get(i).isSymbol('.')) {
+                break;
+            }
+            i++;
+        }
+
+        return i;
+    }
+
+    /**
+     * 拆分语句，语句中的注释及多余空白已在读取时去掉
+     */
+    private static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int length = sql.length();
+        for (int i = 0; i < length; ) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if ('\'' == c || '"' == c || '`' == c) {
+                StringBuilder sb = new StringBuilder();
+                i = unquote(sql, i, sb);
+                tokens.add(new Token('\'' == c ? Token.Kind.STRING : Token.Kind.IDENTIFIER, sb.toString()));
+            } else if (Character.isLetterOrDigit(c) || '_' == c || '$' == c) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || '_' == sql.charAt(i) || '$' == sql.charAt(i))) {
+                    i++;
+                }
+                tokens.add(new Token(Token.Kind.WORD, sql.substring(start, i)));
+            } else {
+                tokens.add(new Token(Token.Kind.SYMBOL, String.valueOf(c)));
+                i++;
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * 去掉引号并还原转义字符，返回引号结束后的位置
+     */
+    private static int unquote(String sql, int start, StringBuilder sb) {
+        char quote = sql.charAt(start);
+        int i = start + 1;
+        while (i < sql.length()) {
+            char c = sql.charAt(i++);
+            if ('\\' == c && '\'' == quote && i < sql.length()) {
+                sb.append(sql.charAt(i++));
+            } else if (quote == c) {
+                if (i < sql.length() && quote == sql.charAt(i)) {
+                    sb.append(quote);
+                    i++;
+                } else {
+                    break;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+
+        return i;
+    }
+
+    /**
+     * 语句中的单词、名称、字符串或者符号
+     */
+    private record Token(Kind kind, String text) {
+        enum Kind {
+            /**
+             * 未加引号的单词，包括关键字、名称及数字
+             */
+            WORD,
+
+            /**
+             * 加了双引号或者反引号的名称
+             */
+            IDENTIFIER,
+
+            /**
+             * 单引号字符串
+             */
+            STRING,
+
+            /**
+             * 其它符号
+             */
+            SYMBOL
+        }
+
+        boolean is(String keyword) {
+            return kind == Kind.WORD && text.equalsIgnoreCase(keyword);
+        }
+
+        boolean isSymbol(char c) {
+            return kind == Kind.SYMBOL && text.charAt(0) == c;
+        }
+
+        String lower() {
+            return text.toLowerCase(Locale.ROOT);
+        }
+    }
+}
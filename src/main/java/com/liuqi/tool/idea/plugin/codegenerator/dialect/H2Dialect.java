@@ -0,0 +1,71 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * H2方言
+ * H2要求注释写在约束之前；修改列使用alter column
+ */
+public class H2Dialect extends SqlDialect {
+    @Override
+    public String getName() {
+        return "h2";
+    }
+
+    @Override
+    protected Map<String, String> createTypeMapping() {
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("Integer", "integer default 0");
+        mapping.put("int", "integer default 0");
+        mapping.put("Short", "smallint default 0");
+        mapping.put("short", "smallint default 0");
+        mapping.put("Byte", "tinyint default 0");
+        mapping.put("byte", "tinyint default 0");
+        mapping.put("Long", "bigint default 0");
+        mapping.put("long", "bigint default 0");
+        mapping.put("Float", "numeric(24, 4) default 0");
+        mapping.put("float", "numeric(24, 4) default 0");
+        mapping.put("Double", "numeric(24, 4) default 0");
+        mapping.put("double", "numeric(24, 4) default 0");
+        mapping.put("BigDecimal", "numeric(24, 4) default 0");
+        mapping.put("Boolean", "boolean default false");
+        mapping.put("boolean", "boolean default false");
+        mapping.put("LocalDate", "date");
+        mapping.put("LocalTime", "time");
+        mapping.put("LocalDateTime", "timestamp");
+        mapping.put("Date", "timestamp");
+        mapping.put("Timestamp", "timestamp");
+        mapping.put("OffsetDateTime", "timestamp with time zone");
+        mapping.put("UUID", "uuid");
+        return mapping;
+    }
+
+    @Override
+    protected String identityDefinition() {
+        return "bigint generated by default as identity";
+    }
+
+    @Override
+    protected boolean supportsInlineComment() {
+        return true;
+    }
+
+    @Override
+    protected void appendColumn(StringBuilder sb, String definition, String constraint, String comment) {
+        sb.append(definition);
+        if (null != comment) {
+            sb.append(" comment ").append(comment);
+        }
+        if (!constraint.isEmpty()) {
+            sb.append(" ").append(constraint);
+        }
+    }
+
+    @Override
+    protected void modifyColumn(StringBuilder sb, String tableName, TableSchema.Column previous, TableSchema.Column current) {
+        sb.append("\nalter table ").append(tableName).append(" alter column ").append(current.name()).append(" ");
+        this.appendColumn(sb, current.definition(), current.constraint(), current.comment().isEmpty() ? null : quote(current.comment()));
+        sb.append(";");
+    }
+}
@@ -0,0 +1,81 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MySQL方言
+ * 与引入方言之前生成的建表语句完全一致，避免已有表的表结构对比时产生变化：整数统一使用integer，布尔使用int(1)，
+ * 日期时间使用timestamp，未映射的类型使用varchar；除主键外不生成not null约束
+ */
+public class MySqlDialect extends SqlDialect {
+    @Override
+    public String getName() {
+        return "mysql";
+    }
+
+    @Override
+    protected Map<String, String> createTypeMapping() {
+        Map<String, String> mapping = new HashMap<>();
+        for (String type : new String[]{"Integer", "int", "Short", "Byte", "byte"}) {
+            mapping.put(type, "integer default 0");
+        }
+        mapping.put("Long", "bigint default 0");
+        mapping.put("long", "bigint default 0");
+        for (String type : new String[]{"Float", "float", "Double", "double"}) {
+            mapping.put(type, "Numeric(24, 4) default 0");
+        }
+        mapping.put("LocalDate", "timestamp");
+        mapping.put("LocalDateTime", "timestamp");
+        mapping.put("Boolean", "int(1) default 0");
+        mapping.put("boolean", "int(1) default 0");
+        return mapping;
+    }
+
+    @Override
+    protected String identityDefinition() {
+        return "bigint not null";
+    }
+
+    @Override
+    protected boolean supportsInlineComment() {
+        return true;
+    }
+
+    @Override
+    protected String timestampDefinition(String column) {
+        if (CREATE_TIME_COLUMNS.contains(column)) {
+            return " default current_timestamp";
+        }
+
+        if (UPDATE_TIME_COLUMNS.contains(column)) {
+            return " on update current_timestamp";
+        }
+
+        return "";
+    }
+
+    @Override
+    protected boolean isNullable(FieldModel field) {
+        return true;
+    }
+
+    /**
+     * 只有Long类型的主键使用自增
+     */
+    @Override
+    protected String getIdDefinition(FieldModel field) {
+        return this.isIdentity(field) ? this.identityDefinition() : "varchar(64) not null";
+    }
+
+    @Override
+    protected String getIdConstraint(FieldModel field) {
+        return this.isIdentity(field) ? "primary key auto_increment" : "primary key";
+    }
+
+    private boolean isIdentity(FieldModel field) {
+        return field.getType().contains("Long");
+    }
+}
@@ -0,0 +1,49 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从建表语句中解析出的表结构
+ *
+ * @param name    表名，不包括schema
+ * @param comment 表注释，没有注释时为空字符串
+ * @param columns 所有列，顺序与建表语句一致
+ */
+public record ParsedTable(String name, String comment, List<Column> columns) {
+    public ParsedTable {
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * 替换表注释
+     */
+    public ParsedTable withComment(String comment) {
+        return new ParsedTable(name, comment, columns);
+    }
+
+    /**
+     * 替换列注释，列不存在时返回原表
+     */
+    public ParsedTable withColumnComment(String column, String comment) {
+        List<Column> result = new ArrayList<>(columns.size());
+        for (Column item : columns) {
+            result.add(item.name().equalsIgnoreCase(column)
+                    ? new Column(item.name(), item.type(), item.nullable(), comment)
+                    : item);
+        }
+
+        return new ParsedTable(name, this.comment, result);
+    }
+
+    /**
+     * 列结构
+     *
+     * @param name     列名
+     * @param type     列类型，小写，包括长度等参数，如varchar(64)、bigint unsigned
+     * @param nullable 是否允许为空
+     * @param comment  注释，没有注释时为空字符串
+     */
+    public record Column(String name, String type, boolean nullable, String comment) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * PostgreSQL方言
+ * 不支持列定义中的注释，注释通过单独的comment on语句添加；不支持on update，更新时间需要由应用或者触发器维护；
+ * 修改列时类型、默认值、非空约束及注释需要分别修改
+ */
+public class PostgreSqlDialect extends SqlDialect {
+    @Override
+    public String getName() {
+        return "postgresql";
+    }
+
+    @Override
+    protected Map<String, String> createTypeMapping() {
+        Map<String, String> mapping = new HashMap<>();
+        mapping.put("Integer", "integer default 0");
+        mapping.put("int", "integer default 0");
+        mapping.put("Short", "smallint default 0");
+        mapping.put("short", "smallint default 0");
+        mapping.put("Byte", "smallint default 0");
+        mapping.put("byte", "smallint default 0");
+        mapping.put("Long", "bigint default 0");
+        mapping.put("long", "bigint default 0");
+        mapping.put("Float", "numeric(24, 4) default 0");
+        mapping.put("float", "numeric(24, 4) default 0");
+        mapping.put("Double", "numeric(24, 4) default 0");
+        mapping.put("double", "numeric(24, 4) default 0");
+        mapping.put("BigDecimal", "numeric(24, 4) default 0");
+        mapping.put("Boolean", "boolean default false");
+        mapping.put("boolean", "boolean default false");
+        mapping.put("LocalDate", "date");
+        mapping.put("LocalTime", "time");
+        mapping.put("LocalDateTime", "timestamp");
+        mapping.put("Date", "timestamp");
+        mapping.put("Timestamp", "timestamp");
+        mapping.put("OffsetDateTime", "timestamptz");
+        mapping.put("ZonedDateTime", "timestamptz");
+        mapping.put("Instant", "timestamptz");
+        mapping.put("UUID", "uuid");
+        return mapping;
+    }
+
+    @Override
+    protected String identityDefinition() {
+        return "bigint generated by default as identity";
+    }
+
+    @Override
+    protected boolean supportsInlineComment() {
+        return false;
+    }
+
+    @Override
+    protected String timestampDefinition(String column) {
+        if (CREATE_TIME_COLUMNS.contains(column) || UPDATE_TIME_COLUMNS.contains(column)) {
+            return " default current_timestamp";
+        }
+
+        return "";
+    }
+
+    @Override
+    protected void modifyColumn(StringBuilder sb, String tableName, TableSchema.Column previous, TableSchema.Column current) {
+        String prefix = "\nalter table " + tableName + " alter column " + current.name();
+        String[] previousDefinition = splitDefault(previous.definition());
+        String[] currentDefinition = splitDefault(current.definition());
+        if (!previousDefinition[0].equals(currentDefinition[0])) {
+            sb.append(prefix).append(" type ").append(currentDefinition[0]).append(";");
+        }
+
+        if (!Objects.equals(previousDefinition[1], currentDefinition[1])) {
+            sb.append(prefix).append(null == currentDefinition[1] ? " drop default;" : " set default " + currentDefinition[1] + ";");
+        }
+
+        if (previous.nullable() != current.nullable()) {
+            sb.append(prefix).append(current.nullable() ? " drop not null;" : " set not null;");
+        }
+
+        if (!previous.comment().equals(current.comment())) {
+            sb.append("\ncomment on column ").append(tableName).append(".").append(current.name())
+                    .append(" is ").append(current.comment().isEmpty() ? "null" : quote(current.comment())).append(";");
+        }
+    }
+
+    /**
+     * 将列定义拆分成类型及默认值，没有默认值时第二个元素为null
+     */
+    private static String[] splitDefault(String definition) {
+        int idx = definition.indexOf(" default ");
+        if (-1 == idx) {
+            return new String[]{definition, null};
+        }
+
+        return new String[]{definition.substring(0, idx), definition.substring(idx + " default ".length())};
+    }
+}
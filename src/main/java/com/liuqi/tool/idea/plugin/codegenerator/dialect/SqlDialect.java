@@ -0,0 +1,382 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 数据库方言
+ * 负责将实体字段转换成对应数据库的建表语句及修改表结构的语句，并可以将列类型反向映射为Java类型；类型映射表在创建时计算一次，各个方言只需要提供类型映射及主键、时间、注释的写法
+ *
+ * @see SqlDialects
+ */
+public abstract class SqlDialect {
+    /**
+     * 插入时自动填充当前时间的列
+     */
+    protected static final Set<String> CREATE_TIME_COLUMNS = Set.of("create_time", "create_at");
+
+    /**
+     * 更新时自动填充当前时间的列
+     */
+    protected static final Set<String> UPDATE_TIME_COLUMNS = Set.of("update_time", "modify_time", "modify_at", "update_at");
+
+    private static final int DEFAULT_VARCHAR_LENGTH = 255;
+
+    /**
+     * 反向映射时多个Java类型对应同一列类型的优先顺序，不在列表中的类型排在最后
+     */
+    private static final List<String> PREFERRED_JAVA_TYPES = List.of("String", "Long", "Integer", "Short", "Byte",
+            "BigDecimal", "Double", "Float", "Boolean", "LocalDateTime", "LocalDate", "LocalTime", "OffsetDateTime", "UUID");
+
+    /**
+     * 不在类型映射中的常见列类型 -> Java简单类型，用于反向映射
+     */
+    private static final Map<String, String> COMMON_JAVA_TYPES = Map.ofEntries(
+            Map.entry("char", "String"), Map.entry("varchar", "String"), Map.entry("nchar", "String"),
+            Map.entry("nvarchar", "String"), Map.entry("character", "String"), Map.entry("character varying", "String"),
+            Map.entry("text", "String"), Map.entry("tinytext", "String"), Map.entry("mediumtext", "String"),
+            Map.entry("longtext", "String"), Map.entry("clob", "String"), Map.entry("json", "String"),
+            Map.entry("jsonb", "String"), Map.entry("enum", "String"), Map.entry("set", "String"),
+            Map.entry("int", "Integer"), Map.entry("integer", "Integer"), Map.entry("mediumint", "Integer"),
+            Map.entry("serial", "Integer"), Map.entry("bigint", "Long"), Map.entry("bigserial", "Long"),
+            Map.entry("smallint", "Short"), Map.entry("smallserial", "Short"), Map.entry("tinyint", "Byte"),
+            Map.entry("decimal", "BigDecimal"), Map.entry("numeric", "BigDecimal"), Map.entry("float", "Float"),
+            Map.entry("real", "Float"), Map.entry("double", "Double"), Map.entry("double precision", "Double"),
+            Map.entry("bool", "Boolean"), Map.entry("boolean", "Boolean"), Map.entry("bit", "Boolean"),
+            Map.entry("date", "LocalDate"), Map.entry("time", "LocalTime"), Map.entry("datetime", "LocalDateTime"),
+            Map.entry("timestamp", "LocalDateTime"), Map.entry("timestamp without time zone", "LocalDateTime"),
+            Map.entry("timestamptz", "OffsetDateTime"), Map.entry("timestamp with time zone", "OffsetDateTime"),
+            Map.entry("uuid", "UUID"), Map.entry("blob", "byte[]"), Map.entry("longblob", "byte[]"),
+            Map.entry("binary", "byte[]"), Map.entry("varbinary", "byte[]"), Map.entry("bytea", "byte[]"));
+
+    /**
+     * Java简单类型 -> 列定义（类型及默认值）
+     */
+    private final Map<String, String> typeMapping;
+
+    /**
+     * 列类型 -> Java简单类型，由类型映射反向得到，用于根据建表语句生成实体类
+     */
+    private final Map<String, String> javaTypeMapping;
+
+    protected SqlDialect() {
+        this.typeMapping = Map.copyOf(this.createTypeMapping());
+        this.javaTypeMapping = Map.copyOf(this.createJavaTypeMapping());
+    }
+
+    /**
+     * 方言名称，即config.yaml中dialect的取值
+     */
+    public abstract String getName();
+
+    /**
+     * 创建类型映射，key为Java简单类型名称，value为列类型及默认值，如bigint default 0；未映射的类型使用varchar
+     */
+    protected abstract Map<String, String> createTypeMapping();
+
+    /**
+     * 自增主键的列定义，不包括列名及primary key约束
+     */
+    protected abstract String identityDefinition();
+
+    /**
+     * 是否支持在列定义中直接写注释，不支持时使用单独的comment on语句
+     */
+    protected abstract boolean supportsInlineComment();
+
+    /**
+     * 时间列的额外定义，如创建时间默认取当前时间；只用于datetime及timestamp类型的列
+     */
+    protected String timestampDefinition(String column) {
+        if (CREATE_TIME_COLUMNS.contains(column)) {
+            return " default current_timestamp";
+        }
+
+        if (UPDATE_TIME_COLUMNS.contains(column)) {
+            return " default current_timestamp on update current_timestamp";
+        }
+
+        return "";
+    }
+
+    /**
+     * 是否可以使用current_timestamp作为默认值的列类型，date等类型不能使用
+     *
+     * @param definition 列定义，包括类型及默认值
+     */
+    protected boolean isTimestamp(String definition) {
+        String type = definition.toLowerCase(Locale.ROOT);
+        return type.startsWith("datetime") || type.startsWith("timestamp");
+    }
+
+    /**
+     * 字段对应的列是否允许为空，用于生成not null约束
+     */
+    protected boolean isNullable(FieldModel field) {
+        return field.isNullable();
+    }
+
+    /**
+     * 根据列类型获取Java简单类型，与建表时使用同一份类型映射；无法识别的类型使用String
+     *
+     * @param sqlType 列类型，如varchar(64)、decimal(24,4)、bigint unsigned
+     */
+    public String getJavaType(String sqlType) {
+        String type = normalizeType(sqlType);
+        String javaType = javaTypeMapping.get(type);
+        if (null == javaType) {
+            // 去掉参数及无符号等修饰后再查找，如tinyint(1)先按完整类型查找，再按tinyint查找
+            javaType = javaTypeMapping.get(baseType(type));
+        }
+
+        return null == javaType ? "String" : javaType;
+    }
+
+    /**
+     * 反向类型映射，多个Java类型对应同一列类型时按PREFERRED_JAVA_TYPES选择，包装类型优先于基本类型
+     */
+    private Map<String, String> createJavaTypeMapping() {
+        Map<String, String> result = new HashMap<>(COMMON_JAVA_TYPES);
+        Map<String, String> mapped = new HashMap<>();
+        typeMapping.forEach((javaType, definition) -> {
+            String type = normalizeType(definition.split(" default ")[0]);
+            for (String key : new String[]{type, baseType(type)}) {
+                mapped.merge(key, javaType, (a, b) -> rank(a) <= rank(b) ? a : b);
+            }
+        });
+
+        // 类型映射中的类型优先，相同列类型的通用映射排序更靠前时仍使用通用映射，如timestamp映射为LocalDateTime
+        mapped.forEach((type, javaType) -> result.merge(type, javaType, (common, own) -> rank(common) < rank(own) ? common : own));
+        return result;
+    }
+
+    private static int rank(String javaType) {
+        int idx = PREFERRED_JAVA_TYPES.indexOf(javaType);
+        return -1 == idx ? PREFERRED_JAVA_TYPES.size() : idx;
+    }
+
+    private static String normalizeType(String type) {
+        return type.trim().toLowerCase(Locale.ROOT).replaceAll("\\s*([(,])\\s*", "$1")
+                .replaceAll("\\s+\\)", ")")
+                .replaceAll("\\s+", " ");
+    }
+
+    /**
+     * 去掉类型参数及unsigned等修饰，保留with time zone之类的类型名称
+     */
+    private static String baseType(String type) {
+        return type.replaceAll("\\([^)]*\\)", "")
+                .replaceAll("\\b(unsigned|signed|zerofill)\\b", "")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * 获取字段的列定义，包括类型及默认值，不包括列名、约束及注释
+     */
+    public String getColumnDefinition(FieldModel field) {
+        String definition = typeMapping.get(field.getType());
+        if (null == definition) {
+            definition = "varchar(" + (null == field.getLength() ? DEFAULT_VARCHAR_LENGTH : field.getLength()) + ")";
+        }
+
+        if (this.isTimestamp(definition)) {
+            definition += this.timestampDefinition(field.getColumn());
+        }
+
+        return definition;
+    }
+
+    /**
+     * 输出列定义的剩余部分，默认顺序为：类型及默认值、约束、注释
+     *
+     * @param definition 类型及默认值
+     * @param constraint 约束，如not null、primary key，没有约束时为空
+     * @param comment    注释，已转义并加上引号，不支持列注释或者没有注释时为null
+     */
+    protected void appendColumn(StringBuilder sb, String definition, String constraint, String comment) {
+        sb.append(definition);
+        if (!constraint.isEmpty()) {
+            sb.append(" ").append(constraint);
+        }
+        if (null != comment) {
+            sb.append(" comment ").append(comment);
+        }
+    }
+
+    /**
+     * 生成建表语句，id字段作为主键放在第一个
+     *
+     * @param tableName 表名
+     * @param fields    实体字段
+     * @return 建表语句，不支持列注释的数据库会在建表语句后追加comment on语句
+     */
+    public String createTable(String tableName, List<FieldModel> fields) {
+        StringBuilder sb = new StringBuilder(64 + fields.size() * 48);
+        StringBuilder comments = new StringBuilder();
+        sb.append("\ncreate table ")
+                .append(tableName)
+                .append("(\n");
+
+        // id特殊处理，并放在第一个
+        boolean first = true;
+        for (FieldModel field : fields) {
+            if ("id".equals(field.getName())) {
+                sb.append("\tid ");
+                this.appendColumn(sb, this.getIdDefinition(field), this.getIdConstraint(field),
+                        this.toComment(comments, tableName, "id", "主键"));
+                first = false;
+                break;
+            }
+        }
+
+        // 处理剩余字段
+        for (FieldModel field : fields) {
+            String column = field.getColumn();
+            if (column.equals("id")) {
+                continue;
+            }
+
+            if (!first) {
+                sb.append(",\n");
+            }
+            first = false;
+
+            sb.append("\t").append(column).append(" ");
+            this.appendColumn(sb, this.getColumnDefinition(field), this.isNullable(field) ? "" : "not null",
+                    this.toComment(comments, tableName, column, field.getComment()));
+        }
+        sb.append("\n)");
+
+        if (!comments.isEmpty()) {
+            sb.append(";").append(comments);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 生成表结构，用于与下次生成时的表结构对比；主键不参与对比
+     */
+    public TableSchema toSchema(String tableName, List<FieldModel> fields) {
+        List<TableSchema.Column> columns = new ArrayList<>(fields.size());
+        for (FieldModel field : fields) {
+            if (!"id".equals(field.getColumn())) {
+                columns.add(new TableSchema.Column(field.getColumn(), this.getColumnDefinition(field), this.isNullable(field),
+                        null == field.getComment() ? "" : field.getComment()));
+            }
+        }
+
+        return new TableSchema(this.getName(), tableName, columns);
+    }
+
+    /**
+     * 生成修改表结构的语句，只包含新增、修改及删除列；字段重命名会表现为删除旧列并新增新列
+     *
+     * @param previous 上次生成时的表结构
+     * @param current  当前的表结构
+     * @return 修改语句，每条语句以分号结束；表结构未变化时返回空字符串
+     */
+    public String alterTable(TableSchema previous, TableSchema current) {
+        String tableName = current.tableName();
+        Map<String, TableSchema.Column> previousColumns = new LinkedHashMap<>();
+        previous.columns().forEach(column -> previousColumns.put(column.name(), column));
+
+        StringBuilder sb = new StringBuilder();
+        for (TableSchema.Column column : current.columns()) {
+            TableSchema.Column old = previousColumns.remove(column.name());
+            if (null == old) {
+                this.addColumn(sb, tableName, column);
+            } else if (!old.equals(column)) {
+                this.modifyColumn(sb, tableName, old, column);
+            }
+        }
+
+        for (TableSchema.Column column : previousColumns.values()) {
+            this.dropColumn(sb, tableName, column);
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 新增列
+     */
+    protected void addColumn(StringBuilder sb, String tableName, TableSchema.Column column) {
+        StringBuilder comments = new StringBuilder();
+        sb.append("\nalter table ").append(tableName).append(" add column ").append(column.name()).append(" ");
+        this.appendColumn(sb, column.definition(), column.constraint(),
+                this.toComment(comments, tableName, column.name(), column.comment()));
+        sb.append(";").append(comments);
+    }
+
+    /**
+     * 修改列，默认使用完整的列定义替换原有定义
+     *
+     * @param previous 上次生成时的列结构
+     * @param current  当前的列结构
+     */
+    protected void modifyColumn(StringBuilder sb, String tableName, TableSchema.Column previous, TableSchema.Column current) {
+        StringBuilder comments = new StringBuilder();
+        sb.append("\nalter table ").append(tableName).append(" modify column ").append(current.name()).append(" ");
+        this.appendColumn(sb, current.definition(), current.constraint(),
+                this.toComment(comments, tableName, current.name(), current.comment()));
+        sb.append(";").append(comments);
+    }
+
+    /**
+     * 删除列
+     */
+    protected void dropColumn(StringBuilder sb, String tableName, TableSchema.Column column) {
+        sb.append("\nalter table ").append(tableName).append(" drop column ").append(column.name()).append(";");
+    }
+
+    /**
+     * 转换成sql字符串
+     */
+    protected static String quote(String str) {
+        return "'" + str.replace("'", "''") + "'";
+    }
+
+    /**
+     * 主键列定义，不包括primary key约束；数值类型使用自增主键
+     */
+    protected String getIdDefinition(FieldModel field) {
+        return switch (field.getType()) {
+            case "Long", "long", "Integer", "int" -> this.identityDefinition();
+            default -> "varchar(64) not null";
+        };
+    }
+
+    /**
+     * 主键列的约束
+     */
+    protected String getIdConstraint(FieldModel field) {
+        return "primary key";
+    }
+
+    /**
+     * 转换列注释；不支持列注释时生成comment on语句，返回null
+     */
+    private String toComment(StringBuilder comments, String tableName, String column, String comment) {
+        if (null == comment || comment.isEmpty()) {
+            return null;
+        }
+
+        String literal = quote(comment);
+        if (this.supportsInlineComment()) {
+            return literal;
+        }
+
+        comments.append("\ncomment on column ").append(tableName).append(".").append(column)
+                .append(" is ").append(literal).append(";");
+        return null;
+    }
+}
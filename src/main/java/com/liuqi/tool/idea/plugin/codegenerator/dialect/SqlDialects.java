@@ -0,0 +1,54 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 数据库方言注册表
+ * 内置MySQL、PostgreSQL及H2，通过config.yaml中的dialect选择，未配置时使用MySQL
+ */
+public class SqlDialects {
+    /**
+     * 默认方言
+     */
+    public static final String DEFAULT = "mysql";
+
+    private static final Map<String, SqlDialect> DIALECTS = new LinkedHashMap<>();
+
+    static {
+        register(new MySqlDialect(), "mariadb");
+        register(new PostgreSqlDialect(), "postgres", "pg");
+        register(new H2Dialect());
+    }
+
+    private SqlDialects() {
+    }
+
+    /**
+     * 注册方言，名称及别名不区分大小写
+     */
+    public static synchronized void register(SqlDialect dialect, String... aliases) {
+        DIALECTS.put(dialect.getName().toLowerCase(Locale.ROOT), dialect);
+        for (String alias : aliases) {
+            DIALECTS.put(alias.toLowerCase(Locale.ROOT), dialect);
+        }
+    }
+
+    /**
+     * 根据名称查找方言，名称为空时返回默认方言
+     */
+    public static synchronized Optional<SqlDialect> find(String name) {
+        String key = null == name || name.isBlank() ? DEFAULT : name.trim().toLowerCase(Locale.ROOT);
+        return Optional.ofNullable(DIALECTS.get(key));
+    }
+
+    /**
+     * 获取所有已注册的方言
+     */
+    public static synchronized Collection<SqlDialect> all() {
+        return DIALECTS.values().stream().distinct().toList();
+    }
+}
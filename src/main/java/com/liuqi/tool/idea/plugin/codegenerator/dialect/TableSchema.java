@@ -0,0 +1,34 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import java.util.List;
+
+/**
+ * 表结构
+ * 由方言根据实体字段生成，记录每一列最终生成的列定义，用于与上次生成的表结构进行对比；主键不包含在内
+ *
+ * @param dialect   方言名称
+ * @param tableName 表名
+ * @param columns   除主键外的所有列
+ */
+public record TableSchema(String dialect, String tableName, List<Column> columns) {
+    public TableSchema {
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * 列结构
+     *
+     * @param name       列名
+     * @param definition 类型及默认值
+     * @param nullable   是否允许为空
+     * @param comment    注释，没有注释时为空字符串
+     */
+    public record Column(String name, String definition, boolean nullable, String comment) {
+        /**
+         * 列约束
+         */
+        public String constraint() {
+            return nullable ? "" : "not null";
+        }
+    }
+}
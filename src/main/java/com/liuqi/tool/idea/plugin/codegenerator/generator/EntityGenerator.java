@@ -0,0 +1,501 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.concurrency.JobLauncher;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.FileIndexFacade;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.ClassDefiner;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.EntityModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialect;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialects;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.TableSchema;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GenerationManifest;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GeneratorConfigService;
+import com.liuqi.tool.idea.plugin.codegenerator.service.SchemaSnapshot;
+import com.liuqi.tool.idea.plugin.codegenerator.template.CompiledTemplate;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateCompiler;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateContext;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.EntityModelExtractor;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.GenerationMetrics;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.MyStringUtils;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 实体类代码生成器
+ * 负责在读操作中根据实体类渲染出所有需要生成的内容，不直接修改项目；
+ * 一个生成器实例对应一次生成操作，可以连续处理多个实体类，配置及类生成配置在多个实体类之间共享
+ */
+public class EntityGenerator {
+    private static final Logger log = LoggerFactory.getLogger(EntityGenerator.class);
+
+    private static final List<String> systemFields = Arrays.asList("id", "createTime", "createBy", "createUser", "updateTime", "updateBy");
+
+    private final Project project;
+
+    /**
+     * 生成主配置
+     */
+    private final GeneratorConfig config;
+
+    /**
+     * 类生成配置，整个批次只加载一次
+     */
+    private final Map<String, ClassDefiner> definers = new LinkedHashMap<>();
+
+    /**
+     * 类生成配置摘要
+     */
+    private final Map<ClassDefiner, String> definerHashes = new ConcurrentHashMap<>();
+
+    /**
+     * 源码根目录 -> 工作目录，同一批次中的实体共享
+     */
+    private final Map<VirtualFile, PsiDirectory> workDirs = new ConcurrentHashMap<>();
+
+    /**
+     * 生成清单
+     */
+    private final GenerationManifest manifest;
+
+    /**
+     * 本次生成的耗时统计
+     */
+    private final GenerationMetrics metrics;
+
+    /**
+     * 错误消息处理
+     */
+    private final Consumer<String> errorHandler;
+
+    public EntityGenerator(Project project, GeneratorConfig config, GenerationMetrics metrics, Consumer<String> errorHandler) {
+        this.project = project;
+        this.config = config;
+        this.metrics = metrics;
+        this.errorHandler = errorHandler;
+        this.manifest = GenerationManifest.getInstance(project);
+
+        if (CollectionUtils.isNotEmpty(config.getClasses())) {
+            try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.CONFIG)) {
+                config.getClasses().forEach(clazz -> definers.put(clazz, PsiUtils.loadClassDefiner(project, clazz)));
+            }
+        }
+    }
+
+    /**
+     * 判断类是否可以作为实体类进行生成
+     */
+    public static boolean isEntity(GeneratorConfig config, PsiClass aClass) {
+        String expectAnnotation = config.getTableAnnotation();
+        return StringUtils.isBlank(expectAnnotation) || null != aClass.getAnnotation(expectAnnotation);
+    }
+
+    /**
+     * 获取生成类的基础包，未配置basePackage时取实体类所在包往上两层
+     *
+     * @param config      生成配置
+     * @param packageName 实体类所在包
+     * @return 基础包，未配置且无法推算时返回null
+     */
+    public static String getBasePackage(GeneratorConfig config, String packageName) {
+        if (StringUtils.isNotBlank(config.getBasePackage())) {
+            return config.getBasePackage();
+        }
+
+        String[] arr = packageName.split("\\.");
+        if (arr.length <= 2) {
+            return null;
+        }
+
+        return String.join(".", Arrays.copyOf(arr, arr.length - 2));
+    }
+
+    /**
+     * 根据实体类渲染需要生成的内容，需要在读操作中调用
+     *
+     * @param aClass 实体类
+     * @return 渲染结果，实体类不满足生成条件时返回空列表
+     */
+    public List<GeneratedFile> render(PsiClass aClass) {
+        return this.render(List.of(aClass));
+    }
+
+    /**
+     * 批量渲染实体类，需要在读操作中调用
+     * 先逐个提取实体信息，再将所有实体与类生成配置的组合并行渲染；渲染结果的顺序与串行渲染时一致
+     *
+     * @param entities 实体类
+     * @return 渲染结果
+     */
+    public List<GeneratedFile> render(List<PsiClass> entities) {
+        // 使用当前读操作的进度，读操作被写操作打断时各个渲染任务同时取消
+        ProgressIndicator indicator = ProgressManager.getInstance().getProgressIndicator();
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.RENDER)) {
+            if (definers.isEmpty()) {
+                errorHandler.accept("config.yaml中未配置classes清单");
+                return new ArrayList<>();
+            }
+
+            // 每个实体的每个输出作为一个渲染任务，任务之间互不依赖
+            List<Supplier<GeneratedFile>> jobs = new ArrayList<>();
+            for (PsiClass aClass : entities) {
+                ProgressManager.checkCanceled();
+                EntityContext context = this.prepare(aClass);
+                if (null == context) {
+                    continue;
+                }
+
+                metrics.increment(GenerationMetrics.Counter.ENTITIES);
+                definers.forEach((clazz, definer) -> jobs.add(() -> this.renderClass(context, clazz, definer)));
+                jobs.add(() -> this.renderLiquibase(context));
+                jobs.add(() -> this.renderPage(context));
+            }
+
+            GeneratedFile[] results = new GeneratedFile[jobs.size()];
+            AtomicInteger done = new AtomicInteger();
+            List<Integer> indexes = IntStream.range(0, jobs.size()).boxed().toList();
+            boolean completed = JobLauncher.getInstance().invokeConcurrentlyUnderProgress(indexes, indicator, index -> {
+                results[index] = jobs.get(index).get();
+                if (null != indicator) {
+                    indicator.setFraction((double) done.incrementAndGet() / jobs.size());
+                }
+                return true;
+            });
+            if (!completed) {
+                throw new ProcessCanceledException();
+            }
+
+            List<GeneratedFile> result = new ArrayList<>(results.length);
+            for (GeneratedFile file : results) {
+                if (null != file) {
+                    result.add(file);
+                }
+            }
+            metrics.add(GenerationMetrics.Counter.FILES_RENDERED, result.size());
+            return result;
+        }
+    }
+
+    /**
+     * 提取实体信息，实体类不满足生成条件时返回null
+     */
+    private EntityContext prepare(PsiClass aClass) {
+        // 如果有预期的注解，那么不包含该注解的类将不做处理，避免处理错误
+        if (!isEntity(config, aClass)) {
+            errorHandler.accept("只能处理被" + config.getTableAnnotation() + "注解的Java类");
+            return null;
+        }
+
+        Module module = FileIndexFacade.getInstance(project).getModuleForFile(aClass.getContainingFile().getVirtualFile());
+        if (null == module) {
+            errorHandler.accept(aClass.getName() + "不在任何模块中");
+            return null;
+        }
+        PsiUtils psiUtils = PsiUtils.of(module);
+
+        EntityModel model = EntityModelExtractor.extract(aClass, config);
+        String entityName = model.getName();
+
+        // 配置为缓存对象，不能直接修改，推算出的basePackage单独保存
+        String basePackage = getBasePackage(config, psiUtils.getPackageName(aClass));
+        if (null == basePackage) {
+            errorHandler.accept("未配置basePackage");
+            return null;
+        }
+
+        // 获取工作目录，即main/java这个目录
+        PsiDirectory workDir = this.getWorkDir(aClass);
+        if (null == workDir) {
+            errorHandler.accept(aClass.getName() + "不在源码目录中");
+            return null;
+        }
+
+        // 实体模型摘要，实体及模板均未变化的文件不再重新生成
+        String entityHash = this.hashEntity(model);
+
+        return new EntityContext(model, module, psiUtils, basePackage, workDir, MyStringUtils.toKebabCase(entityName),
+                entityHash);
+    }
+
+    /**
+     * 根据类生成配置渲染类，不需要生成时返回null
+     */
+    private GeneratedFile renderClass(EntityContext context, String clazz, ClassDefiner definer) {
+        ProgressManager.checkCanceled();
+        if (StringUtils.isBlank(definer.getDir())) {
+            errorHandler.accept(clazz + "未配置所在包名");
+            return null;
+        }
+
+        Map<String, String> variables = context.variables();
+        PsiDirectory workDir = context.workDir();
+        String cPackage = context.basePackage() + "." + definer.getDir().replaceAll("/", ".");
+        String name = TemplateCompiler.compile(definer.getName()).render(variables);
+        String relativePath = cPackage.replace(".", "/") + "/" + name + ".java";
+        String inputHash = GenerationManifest.hash(context.entityHash(), this.hashDefiner(definer));
+        GenerationManifest.Decision decision = manifest.check(workDir.getVirtualFile().getPath() + "/" + relativePath,
+                inputHash, workDir.getVirtualFile().findFileByRelativePath(relativePath));
+        if (decision == GenerationManifest.Decision.SKIP) {
+            metrics.increment(GenerationMetrics.Counter.FILES_SKIPPED);
+            return null;
+        }
+
+        String content = definer.getCompiledTemplate().render(context.templateContext());
+        String like = Optional.ofNullable(definer.getLike())
+                .map(str -> TemplateCompiler.compile(str).render(variables))
+                .orElse(null);
+
+        // 增加注释
+        content = this.getComment(context.model().getComment() + Optional.ofNullable(definer.getComment()).orElse("")) + content;
+
+        log.info("准备生成类，名称：{}, 包：{}", name, cPackage);
+
+        List<String> imports = Optional.ofNullable(definer.getImports())
+                .map(list -> list.stream().map(item -> TemplateCompiler.compile(item).render(variables))
+                        .collect(Collectors.toList())).orElse(null);
+
+        GeneratedFile file = new GeneratedFile(GeneratedFile.Type.JAVA)
+                .setModule(context.module())
+                .setWorkDir(workDir)
+                .setPackageName(cPackage)
+                .setFileName(name + ".java")
+                .setOutputPath(workDir.getVirtualFile().getPath() + "/" + relativePath)
+                .setInputHash(inputHash)
+                .setOverwrite(decision == GenerationManifest.Decision.OVERWRITE);
+        if (!this.usePsi(definer)) {
+            // 不构建PSI，包声明由添加到目录时补充改为直接写在文本中
+            return file.setContent("package " + cPackage + ";\n\n" + content);
+        }
+
+        // 并行渲染阶段只生成文本，PSI在写入阶段串行构建
+        return file.setContent(content)
+                .setImports(imports)
+                .setLike(like)
+                .setPsi(true);
+    }
+
+    /**
+     * 渲染前端界面
+     */
+    private GeneratedFile renderPage(EntityContext context) {
+        ProgressManager.checkCanceled();
+        PsiUtils psiUtils = context.psiUtils();
+
+        // 加载前端生成配置文件
+        String pageTemplateFile = config.getPageTemplate();
+        if (StringUtils.isBlank(pageTemplateFile)) {
+            return null;
+        }
+
+        ClassDefiner definer = PsiUtils.loadClassDefiner(project, pageTemplateFile);
+        String template = definer.getTemplate();
+        if (StringUtils.isBlank(template)) {
+            return null;
+        }
+
+        String dir = Optional.ofNullable(definer.getDir()).orElse("resources/vue");
+        String entityName = MyStringUtils.firstLetterToLower(context.model().getName());
+        String filePath = dir + "/" + entityName + ".vue";
+        String outputPath = psiUtils.getResourcePath(filePath);
+        String inputHash = GenerationManifest.hash(context.entityHash(), this.hashDefiner(definer));
+        GenerationManifest.Decision decision = null == outputPath ? GenerationManifest.Decision.SKIP
+                : manifest.check(outputPath, inputHash, psiUtils.getResourceFile(filePath));
+        if (decision == GenerationManifest.Decision.SKIP) {
+            metrics.increment(GenerationMetrics.Counter.FILES_SKIPPED);
+            return null;
+        }
+
+        // 任意名称的循环块（包括片段中的循环块）都使用同一份字段列表，一次渲染完成
+        List<Map<String, String>> items = context.model().getFields().stream()
+                .filter(field -> !systemFields.contains(field.getName()))
+                .map(FieldModel::toTemplateVariables)
+                .toList();
+        TemplateContext templateContext = new TemplateContext(Map.of("COMMENT", context.model().getComment(), "PATH", context.path(),
+                "BR", "\n")).defaultLoop(items).fragments(context.fragments());
+        template = definer.getCompiledTemplate().render(templateContext);
+
+        GeneratedFile file = new GeneratedFile(GeneratedFile.Type.PAGE)
+                .setModule(context.module())
+                .setPath(filePath)
+                .setFileName(entityName + ".vue")
+                .setOutputPath(outputPath)
+                .setInputHash(inputHash)
+                .setOverwrite(decision == GenerationManifest.Decision.OVERWRITE);
+        return file.setContent(template)
+                .setPsi(this.usePsi(definer));
+    }
+
+    /**
+     * 是否需要构建PSI；开启fastWrite时只有配置了psi，或者需要导入类、复制属性的文件才构建
+     */
+    private boolean usePsi(ClassDefiner definer) {
+        return !config.getFastWrite() || definer.isPsi() || StringUtils.isNotBlank(definer.getLike())
+                || CollectionUtils.isNotEmpty(definer.getImports());
+    }
+
+    /**
+     * 渲染Liquibase建表语句；开启对比时同时根据上次生成的表结构渲染修改语句，表已存在时写入修改语句
+     */
+    private GeneratedFile renderLiquibase(EntityContext context) {
+        if (!config.getWithLiquibase()) {
+            return null;
+        }
+
+        Optional<SqlDialect> dialect = SqlDialects.find(config.getDialect());
+        if (dialect.isEmpty()) {
+            errorHandler.accept("不支持的数据库方言：" + config.getDialect());
+            return null;
+        }
+
+        SqlDialect sqlDialect = dialect.get();
+        String tableName = context.model().getTableName();
+        List<FieldModel> fields = context.model().getFields();
+        TableSchema schema = sqlDialect.toSchema(tableName, fields);
+        String alterContent = null;
+        if (config.getLiquibaseDiff()) {
+            TableSchema previous = SchemaSnapshot.getInstance(project).get(schema.dialect(), tableName);
+            alterContent = null == previous ? null : StringUtils.defaultIfEmpty(sqlDialect.alterTable(previous, schema), null);
+        }
+
+        // 拆分时写入到每张表单独的文件中
+        String liquibaseFile = config.getLiquibaseSplit()
+                ? StringUtils.removeEnd(config.getLiquibaseDir(), "/") + "/" + tableName + ".xml"
+                : config.getLiquibaseFile();
+        return new GeneratedFile(GeneratedFile.Type.LIQUIBASE)
+                .setModule(context.module())
+                .setPath(liquibaseFile)
+                .setFileName(liquibaseFile.substring(liquibaseFile.lastIndexOf("/") + 1))
+                .setTableName(tableName)
+                .setContent(sqlDialect.createTable(tableName, fields))
+                .setAlterContent(alterContent)
+                .setSchema(schema);
+    }
+
+    /**
+     * 计算实体模型摘要
+     */
+    private String hashEntity(EntityModel model) {
+        StringBuilder sb = new StringBuilder(model.getClassName())
+                .append('|').append(model.getComment())
+                .append('|').append(model.getTableName());
+        for (FieldModel field : model.getFields()) {
+            sb.append('\n').append(field.getName())
+                    .append('|').append(field.getQualifiedType())
+                    .append('|').append(field.getColumn())
+                    .append('|').append(field.getColumnDefinition())
+                    .append('|').append(field.getLength())
+                    .append('|').append(field.getComment())
+                    .append('|').append(field.isDeclared())
+                    .append('|').append(field.isNullable());
+        }
+
+        return GenerationManifest.hash(sb);
+    }
+
+    /**
+     * 计算类生成配置摘要，包括模板引用的所有片段及是否构建PSI；同一批次中每个配置只计算一次
+     */
+    private String hashDefiner(ClassDefiner definer) {
+        return definerHashes.computeIfAbsent(definer, item -> {
+            StringBuilder fragments = new StringBuilder();
+            this.appendFragments(item.getCompiledTemplate(), new HashSet<>(), fragments);
+            String hash = GenerationManifest.hash(item.getName(), item.getDir(), item.getLike(),
+                    String.valueOf(item.getImports()), item.getComment(), item.getTemplate(), fragments);
+
+            // 直接写入文本时不经过格式化，输出与构建PSI时不同
+            return this.usePsi(item) ? hash : GenerationManifest.hash(hash, "text");
+        });
+    }
+
+    /**
+     * 依次追加模板引用的片段内容，片段中引用的片段同样追加
+     */
+    private void appendFragments(CompiledTemplate template, Set<String> visited, StringBuilder sb) {
+        GeneratorConfigService configService = GeneratorConfigService.getInstance(project);
+        for (String name : template.getIncludes()) {
+            if (!visited.add(name)) {
+                continue;
+            }
+
+            CompiledTemplate fragment = configService.getFragment(name);
+            sb.append(name).append('\0');
+            if (null != fragment) {
+                sb.append(fragment.getSource()).append('\0');
+                this.appendFragments(fragment, visited, sb);
+            }
+        }
+    }
+
+    /**
+     * 获取工作目录，即实体类所在的源码根目录main/java；同一批次中相同的源码根目录只查找一次
+     */
+    private PsiDirectory getWorkDir(PsiClass aClass) {
+        VirtualFile sourceRoot = ProjectFileIndex.getInstance(project)
+                .getSourceRootForFile(aClass.getContainingFile().getVirtualFile());
+        if (null == sourceRoot) {
+            return null;
+        }
+
+        return workDirs.computeIfAbsent(sourceRoot, root -> PsiManager.getInstance(project).findDirectory(root));
+    }
+
+    /**
+     * 组装类注释
+     *
+     * @param cName 中文名称
+     * @return 类注释内容
+     */
+    private String getComment(String cName) {
+        return "/** \n * " + cName + " \n * @author Coder Generator"
+                + " " + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) + " \n**/\n";
+    }
+
+    /**
+     * 实体信息，渲染同一实体的各个任务共享
+     */
+    private record EntityContext(EntityModel model, Module module, PsiUtils psiUtils, String basePackage,
+                                 PsiDirectory workDir, String path, String entityHash) {
+        /**
+         * 类模板的占位符取值
+         */
+        Map<String, String> variables() {
+            return Map.of("T", model.getName(), "PATH", path, "COMMENT", model.getComment());
+        }
+
+        /**
+         * 类模板的渲染上下文，模板中引用的片段从code-generator目录中加载
+         */
+        TemplateContext templateContext() {
+            return new TemplateContext(this.variables()).fragments(this.fragments());
+        }
+
+        /**
+         * 片段查找方式，编译后的片段在配置服务中缓存
+         */
+        Function<String, CompiledTemplate> fragments() {
+            return GeneratorConfigService.getInstance(module.getProject())::getFragment;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.openapi.module.Module;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFile;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.TableSchema;
+
+import java.util.List;
+
+/**
+ * 渲染结果
+ * 渲染阶段在内存中生成，写入阶段统一写入到项目中
+ */
+public class GeneratedFile {
+    /**
+     * 生成文件类型
+     */
+    public enum Type {
+        /**
+         * Java类，写入到workDir下对应的包中
+         */
+        JAVA,
+
+        /**
+         * 前端页面，写入到资源目录中
+         */
+        PAGE,
+
+        /**
+         * Liquibase建表语句或者修改表结构的语句，追加到changelog文件中
+         */
+        LIQUIBASE
+    }
+
+    private final Type type;
+
+    /**
+     * 所属模块
+     */
+    private Module module;
+
+    /**
+     * Java类所在的源码根目录，即main/java
+     */
+    private PsiDirectory workDir;
+
+    /**
+     * Java类所在包
+     */
+    private String packageName;
+
+    /**
+     * 资源文件路径，相对于资源目录，包含文件名
+     */
+    private String path;
+
+    /**
+     * 文件名称
+     */
+    private String fileName;
+
+    /**
+     * 渲染后的内容；Liquibase类型时为建表语句，Java类及前端页面为文件内容，构建PSI的Java类不包括包声明及导入
+     */
+    private String content;
+
+    /**
+     * 是否需要构建PSI，需要时在写入阶段由内容构建
+     */
+    private boolean psi;
+
+    /**
+     * Java类需要导入的类
+     */
+    private List<String> imports;
+
+    /**
+     * Java类需要从中复制属性的类
+     */
+    private String like;
+
+    /**
+     * 写入阶段构建的文件，非物理文件；直接写入文本时为null
+     */
+    private PsiFile psiFile;
+
+    /**
+     * Liquibase类型时的表名
+     */
+    private String tableName;
+
+    /**
+     * Liquibase类型时，表已存在的情况下修改表结构的语句；没有变化或者未开启对比时为null
+     */
+    private String alterContent;
+
+    /**
+     * Liquibase类型时的表结构，写入后记录到表结构快照中
+     */
+    private TableSchema schema;
+
+    /**
+     * 生成文件的完整路径，用于记录生成清单
+     */
+    private String outputPath;
+
+    /**
+     * 输入摘要，由实体模型及模板计算得到
+     */
+    private String inputHash;
+
+    /**
+     * 文件已存在时是否覆盖
+     */
+    private boolean overwrite;
+
+    public GeneratedFile(Type type) {
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Module getModule() {
+        return module;
+    }
+
+    public GeneratedFile setModule(Module module) {
+        this.module = module;
+        return this;
+    }
+
+    public PsiDirectory getWorkDir() {
+        return workDir;
+    }
+
+    public GeneratedFile setWorkDir(PsiDirectory workDir) {
+        this.workDir = workDir;
+        return this;
+    }
+
+    public String getPackageName() {
+        return packageName;
+    }
+
+    public GeneratedFile setPackageName(String packageName) {
+        this.packageName = packageName;
+        return this;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public GeneratedFile setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public GeneratedFile setFileName(String fileName) {
+        this.fileName = fileName;
+        return this;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public GeneratedFile setContent(String content) {
+        this.content = content;
+        return this;
+    }
+
+    public boolean isPsi() {
+        return psi;
+    }
+
+    public GeneratedFile setPsi(boolean psi) {
+        this.psi = psi;
+        return this;
+    }
+
+    public List<String> getImports() {
+        return imports;
+    }
+
+    public GeneratedFile setImports(List<String> imports) {
+        this.imports = imports;
+        return this;
+    }
+
+    public String getLike() {
+        return like;
+    }
+
+    public GeneratedFile setLike(String like) {
+        this.like = like;
+        return this;
+    }
+
+    public PsiFile getPsiFile() {
+        return psiFile;
+    }
+
+    public GeneratedFile setPsiFile(PsiFile psiFile) {
+        this.psiFile = psiFile;
+        return this;
+    }
+
+    /**
+     * 获取需要写入的文件内容，构建了PSI时取PSI文件的内容
+     */
+    public String getText() {
+        return null == psiFile ? content : psiFile.getText();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public GeneratedFile setTableName(String tableName) {
+        this.tableName = tableName;
+        return this;
+    }
+
+    public String getAlterContent() {
+        return alterContent;
+    }
+
+    public GeneratedFile setAlterContent(String alterContent) {
+        this.alterContent = alterContent;
+        return this;
+    }
+
+    public TableSchema getSchema() {
+        return schema;
+    }
+
+    public GeneratedFile setSchema(TableSchema schema) {
+        this.schema = schema;
+        return this;
+    }
+
+    public String getOutputPath() {
+        return outputPath;
+    }
+
+    public GeneratedFile setOutputPath(String outputPath) {
+        this.outputPath = outputPath;
+        return this;
+    }
+
+    public String getInputHash() {
+        return inputHash;
+    }
+
+    public GeneratedFile setInputHash(String inputHash) {
+        this.inputHash = inputHash;
+        return this;
+    }
+
+    public boolean isOverwrite() {
+        return overwrite;
+    }
+
+    public GeneratedFile setOverwrite(boolean overwrite) {
+        this.overwrite = overwrite;
+        return this;
+    }
+}
@@ -0,0 +1,73 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.ide.highlighter.HtmlFileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiFileFactory;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.ClassCreator;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.GenerationMetrics;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * 生成文件的PSI构建器
+ * 并行渲染阶段只生成文本，需要PSI的文件在预览或者写入前串行构建：解析文本、设置包名、导入类、复制属性并格式化；
+ * 构建结果保存在生成文件中，预览及写入共用同一份
+ */
+class GeneratedFileBuilder {
+    private final Project project;
+
+    private final GeneratorConfig config;
+
+    private final GenerationMetrics metrics;
+
+    GeneratedFileBuilder(Project project, GeneratorConfig config, GenerationMetrics metrics) {
+        this.project = project;
+        this.config = config;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 构建需要PSI的文件，已构建或者不需要时不做处理
+     */
+    void build(GeneratedFile file) {
+        if (!file.isPsi() || null != file.getPsiFile()) {
+            return;
+        }
+
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.BUILD)) {
+            switch (file.getType()) {
+                case JAVA -> this.buildJava(file);
+                case PAGE -> this.buildPage(file);
+                case LIQUIBASE -> {
+                }
+            }
+        }
+    }
+
+    private void buildJava(GeneratedFile file) {
+        // 包声明原本在添加到目录时才补充，覆盖已存在的类时同样需要，因此构建时先设置
+        ClassCreator creator = ClassCreator.of(file.getModule())
+                .metrics(metrics)
+                .init(StringUtils.removeEnd(file.getFileName(), ".java"), file.getContent());
+        creator.getJavaFile().setPackageName(file.getPackageName());
+        creator.importClass(file.getImports())
+                .copyFields(file.getLike());
+
+        // 延迟格式化时由写入后的统一格式化处理
+        if (!config.getDeferFormat()) {
+            creator.format();
+        }
+        file.setPsiFile(creator.getJavaFile());
+    }
+
+    private void buildPage(GeneratedFile file) {
+        PsiFile psiFile = PsiFileFactory.getInstance(project)
+                .createFileFromText(file.getFileName(), HtmlFileType.INSTANCE, file.getContent());
+        if (!config.getDeferFormat()) {
+            PsiUtils.of(file.getModule()).metrics(metrics).format(psiFile);
+        }
+        file.setPsiFile(psiFile);
+    }
+}
@@ -0,0 +1,118 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.codeInsight.actions.AbstractLayoutCodeProcessor;
+import com.intellij.codeInsight.actions.OptimizeImportsProcessor;
+import com.intellij.codeInsight.actions.ReformatCodeProcessor;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.LocalFileSystem;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GenerationManifest;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.GenerationMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成结果格式化器
+ * 写入完成后对本次创建或覆盖的所有文件统一进行一次格式化及导入优化，需要在UI线程中调用；
+ * 格式化完成后重新记录生成清单中的输出摘要，避免格式化后的文件被当作手工修改过；
+ * 格式化的文件数计入所属生成过程的统计，后台任务中的格式化在生成结束后才完成，只有无界面模式下统计耗时
+ */
+public class GenerationFormatter {
+    private static final Logger log = LoggerFactory.getLogger(GenerationFormatter.class);
+
+    private final Project project;
+
+    /**
+     * 需要格式化的文件
+     */
+    private final List<GeneratedFile> files;
+
+    /**
+     * 所属生成过程的耗时统计
+     */
+    private final GenerationMetrics metrics;
+
+    public GenerationFormatter(Project project, List<GeneratedFile> files, GenerationMetrics metrics) {
+        this.project = project;
+        this.files = files;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 在可取消的后台任务中格式化
+     */
+    public void format() {
+        AbstractLayoutCodeProcessor processor = this.createProcessor();
+        if (null != processor) {
+            processor.run();
+        }
+    }
+
+    /**
+     * 在当前线程中直接格式化，用于无界面模式
+     */
+    public void formatNow() {
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.REFORMAT)) {
+            AbstractLayoutCodeProcessor processor = this.createProcessor();
+            if (null != processor) {
+                processor.runWithoutProgress();
+                this.record();
+            }
+        }
+    }
+
+    /**
+     * 先格式化再优化导入，两个处理器依次处理所有文件
+     */
+    private AbstractLayoutCodeProcessor createProcessor() {
+        PsiManager psiManager = PsiManager.getInstance(project);
+        List<PsiFile> psiFiles = new ArrayList<>(files.size());
+        for (GeneratedFile file : files) {
+            VirtualFile virtualFile = this.findFile(file);
+            PsiFile psiFile = null == virtualFile ? null : psiManager.findFile(virtualFile);
+            if (null != psiFile) {
+                psiFiles.add(psiFile);
+            }
+        }
+
+        if (psiFiles.isEmpty()) {
+            return null;
+        }
+
+        log.info("格式化生成的文件：{}", psiFiles.size());
+        metrics.add(GenerationMetrics.Counter.REFORMAT_CALLS, psiFiles.size());
+        AbstractLayoutCodeProcessor processor = new OptimizeImportsProcessor(new ReformatCodeProcessor(project,
+                psiFiles.toArray(PsiFile.EMPTY_ARRAY), null, false));
+
+        // 链式处理器只执行最外层处理器的回调，所有处理器完成后才重新记录生成清单
+        processor.setPostRunnable(this::record);
+        return processor;
+    }
+
+    /**
+     * 以格式化后的内容重新记录生成清单
+     */
+    private void record() {
+        GenerationManifest manifest = GenerationManifest.getInstance(project);
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        for (GeneratedFile file : files) {
+            VirtualFile virtualFile = this.findFile(file);
+            Document document = null == virtualFile ? null : documentManager.getDocument(virtualFile);
+            if (null != document && null != file.getInputHash()) {
+                manifest.record(file.getOutputPath(), file.getInputHash(), document.getImmutableCharSequence());
+            }
+        }
+        manifest.save();
+    }
+
+    private VirtualFile findFile(GeneratedFile file) {
+        return null == file.getOutputPath() ? null : LocalFileSystem.getInstance().findFileByPath(file.getOutputPath());
+    }
+}
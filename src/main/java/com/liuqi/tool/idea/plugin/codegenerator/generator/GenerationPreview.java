@@ -0,0 +1,112 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.diff.DiffContentFactory;
+import com.intellij.diff.DiffDialogHints;
+import com.intellij.diff.DiffManager;
+import com.intellij.diff.chains.SimpleDiffRequestChain;
+import com.intellij.diff.contents.DiffContent;
+import com.intellij.diff.requests.DiffRequest;
+import com.intellij.diff.requests.SimpleDiffRequest;
+import com.intellij.ide.highlighter.HtmlFileType;
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.ide.highlighter.XmlFileType;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.testFramework.LightVirtualFile;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成结果预览
+ * 将渲染结果放到内存文件中，与项目中已存在的文件进行对比展示，确认后才写入项目
+ */
+public class GenerationPreview {
+    private final Project project;
+
+    public GenerationPreview(Project project) {
+        this.project = project;
+    }
+
+    /**
+     * 展示预览并确认是否写入，需要在UI线程中调用
+     *
+     * @param files 渲染结果
+     * @return 用户确认写入时返回true
+     */
+    public boolean confirm(List<GeneratedFile> files) {
+        List<DiffRequest> requests = new ArrayList<>();
+        for (GeneratedFile file : files) {
+            requests.add(this.createRequest(file));
+        }
+
+        DiffManager.getInstance().showDiff(project, new SimpleDiffRequestChain(requests), DiffDialogHints.MODAL);
+
+        return Messages.YES == Messages.showYesNoDialog(project, "确认将" + files.size() + "个生成结果写入项目？",
+                GenerationTask.COMMAND_NAME, Messages.getQuestionIcon());
+    }
+
+    private DiffRequest createRequest(GeneratedFile file) {
+        VirtualFile existing = this.findExisting(file);
+        String content = switch (file.getType()) {
+            case JAVA, PAGE -> file.getText();
+            case LIQUIBASE -> LiquibaseChangelogWriter.preview(this.loadText(existing), this.toChangeSet(file, existing));
+        };
+
+        FileType fileType = switch (file.getType()) {
+            case JAVA -> JavaFileType.INSTANCE;
+            case PAGE -> HtmlFileType.INSTANCE;
+            case LIQUIBASE -> XmlFileType.INSTANCE;
+        };
+
+        DiffContentFactory contentFactory = DiffContentFactory.getInstance();
+        DiffContent before = null == existing ? contentFactory.createEmpty() : contentFactory.create(project, existing);
+        DiffContent after = contentFactory.create(project, new LightVirtualFile(file.getFileName(), fileType, content));
+        return new SimpleDiffRequest(file.getFileName(), before, after,
+                null == existing ? "不存在" : "当前内容", "生成内容");
+    }
+
+    /**
+     * 生成需要追加的changeSet，表已存在时为修改表结构的语句
+     */
+    private String toChangeSet(GeneratedFile file, VirtualFile existing) {
+        LiquibaseChangelogWriter writer = null == existing ? null : LiquibaseChangelogWriter.of(existing);
+        if (null == writer || !writer.containsTable(file.getTableName())) {
+            return LiquibaseChangelogWriter.toChangeSet("create-table-" + file.getTableName(),
+                    GenerationWriter.AUTHOR, file.getContent());
+        }
+
+        if (null == file.getAlterContent()) {
+            return "";
+        }
+
+        return LiquibaseChangelogWriter.toChangeSet(GenerationWriter.alterChangeSetId(file),
+                GenerationWriter.AUTHOR, file.getAlterContent());
+    }
+
+    /**
+     * 查找项目中已存在的文件，只查找不创建
+     */
+    private VirtualFile findExisting(GeneratedFile file) {
+        if (file.getType() == GeneratedFile.Type.JAVA) {
+            String path = file.getPackageName().replace(".", "/") + "/" + file.getFileName();
+            return file.getWorkDir().getVirtualFile().findFileByRelativePath(path);
+        }
+
+        return PsiUtils.of(file.getModule()).getResourceFile(file.getPath());
+    }
+
+    private CharSequence loadText(VirtualFile file) {
+        if (null == file) {
+            return "";
+        }
+
+        Document document = FileDocumentManager.getInstance().getDocument(file);
+        return null == document ? "" : document.getImmutableCharSequence();
+    }
+}
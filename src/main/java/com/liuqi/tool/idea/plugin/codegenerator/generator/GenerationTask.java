@@ -0,0 +1,194 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GenerationManifest;
+import com.liuqi.tool.idea.plugin.codegenerator.service.SchemaSnapshot;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.GenerationMetrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 后台代码生成任务
+ * 先在可取消的非阻塞读操作中渲染所有实体的生成内容，再通过一个写命令统一写入，整个生成过程只产生一次可撤销的操作
+ */
+public class GenerationTask extends Task.Backgroundable {
+    /**
+     * 写命令名称，撤销时显示
+     */
+    public static final String COMMAND_NAME = "Stone Code Generator";
+
+    /**
+     * 通知分组，与plugin.xml中的配置一致
+     */
+    public static final String NOTIFICATION_GROUP = "Stone Code Generator";
+
+    private final GeneratorConfig config;
+
+    private final List<SmartPsiElementPointer<PsiClass>> entities;
+
+    /**
+     * 错误处理，在生成结束后于UI线程中调用
+     */
+    private final Consumer<String> errorHandler;
+
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * 是否只预览，预览确认后才写入项目
+     */
+    private boolean preview;
+
+    /**
+     * 本次创建或覆盖的Java类及前端页面，延迟格式化时在生成结束后统一格式化
+     */
+    private volatile List<GeneratedFile> writtenFiles = List.of();
+
+    /**
+     * 本次生成的耗时统计，传递给生成过程中的各个环节
+     */
+    private volatile GenerationMetrics metrics = GenerationMetrics.none();
+
+    /**
+     * 本次生成的耗时统计摘要
+     */
+    private String summary;
+
+    public GenerationTask(Project project, GeneratorConfig config, Collection<PsiClass> entities,
+                          Consumer<String> errorHandler) {
+        super(project, COMMAND_NAME, true);
+        this.config = config;
+        this.errorHandler = errorHandler;
+
+        SmartPointerManager pointerManager = SmartPointerManager.getInstance(project);
+        this.entities = entities.stream()
+                .map(pointerManager::createSmartPsiElementPointer)
+                .toList();
+    }
+
+    /**
+     * 设置是否只预览
+     */
+    public GenerationTask preview(boolean preview) {
+        this.preview = preview;
+        return this;
+    }
+
+    /**
+     * 获取本次实际创建或覆盖的文件数，已存在而跳过的文件不计算在内
+     */
+    public int getWrittenCount() {
+        return writtenFiles.size();
+    }
+
+    /**
+     * 获取本次创建或覆盖的Java类及前端页面
+     */
+    public List<GeneratedFile> getWrittenFiles() {
+        return writtenFiles;
+    }
+
+    /**
+     * 获取本次生成的耗时统计，生成开始后才有值
+     */
+    public GenerationMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 获取本次生成的耗时统计摘要，生成结束后才有值
+     */
+    public String getSummary() {
+        return summary;
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        metrics = GenerationMetrics.begin(myProject);
+        indicator.setIndeterminate(false);
+        indicator.setText("渲染代码");
+        List<GeneratedFile> files = ReadAction.nonBlocking(this::render)
+                .inSmartMode(myProject)
+                .wrapProgress(indicator)
+                .executeSynchronously();
+        if (files.isEmpty()) {
+            return;
+        }
+
+        indicator.checkCanceled();
+        if (preview) {
+            // 预览时只使用内存文件，需要PSI的文件先串行构建，用户确认后才写入
+            AtomicBoolean confirmed = new AtomicBoolean(false);
+            ApplicationManager.getApplication().invokeAndWait(() -> {
+                GeneratedFileBuilder builder = new GeneratedFileBuilder(myProject, config, metrics);
+                files.forEach(builder::build);
+                confirmed.set(new GenerationPreview(myProject).confirm(files));
+            }, ModalityState.defaultModalityState());
+            if (!confirmed.get()) {
+                return;
+            }
+        }
+
+        indicator.setText("写入代码");
+        GenerationWriter writer = new GenerationWriter(myProject, config, metrics);
+        ApplicationManager.getApplication().invokeAndWait(() -> WriteCommandAction.writeCommandAction(myProject)
+                .withName(COMMAND_NAME)
+                .run(() -> writer.write(files)), ModalityState.defaultModalityState());
+        GenerationManifest.getInstance(myProject).save();
+        SchemaSnapshot.getInstance(myProject).save();
+        writtenFiles = writer.getWrittenFiles();
+    }
+
+    /**
+     * 渲染所有实体，读操作被写操作打断时会重新执行；各实体及各类生成配置的渲染并行执行
+     */
+    private List<GeneratedFile> render() {
+        errors.clear();
+        List<PsiClass> classes = new ArrayList<>(entities.size());
+        for (SmartPsiElementPointer<PsiClass> pointer : entities) {
+            Optional.ofNullable(pointer.getElement()).ifPresent(classes::add);
+        }
+
+        return new EntityGenerator(myProject, config, metrics, errors::add).render(classes);
+    }
+
+    @Override
+    public void onSuccess() {
+        // 写入完成后在单独的后台任务中统一格式化，不阻塞本次生成
+        if (config.getDeferFormat() && !writtenFiles.isEmpty()) {
+            new GenerationFormatter(myProject, writtenFiles, metrics).format();
+        }
+    }
+
+    @Override
+    public void onFinished() {
+        summary = metrics.end();
+        if (0 != metrics.get(GenerationMetrics.Counter.ENTITIES)) {
+            NotificationGroupManager.getInstance().getNotificationGroup(NOTIFICATION_GROUP)
+                    .createNotification(COMMAND_NAME, summary.replace("\n", "<br/>"), NotificationType.INFORMATION)
+                    .notify(myProject);
+        }
+
+        if (!errors.isEmpty()) {
+            errorHandler.accept(String.join("\n", errors));
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VfsUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.*;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.TableSchema;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GenerationManifest;
+import com.liuqi.tool.idea.plugin.codegenerator.service.SchemaSnapshot;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.GenerationMetrics;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 生成结果写入器
+ * 将渲染阶段生成的内容写入到项目中，需要在一个写命令中调用
+ */
+public class GenerationWriter {
+    private static final Logger log = LoggerFactory.getLogger(GenerationWriter.class);
+
+    /**
+     * Liquibase changeSet的作者
+     */
+    static final String AUTHOR = "codeGenerator";
+
+    private final Project project;
+
+    private final GeneratorConfig config;
+
+    private final GenerationManifest manifest;
+
+    private final GenerationMetrics metrics;
+
+    private final GeneratedFileBuilder builder;
+
+    /**
+     * 已获取或创建的包目录，key为工作目录路径与包名
+     */
+    private final Map<String, PsiDirectory> directories = new HashMap<>();
+
+    /**
+     * 本次创建或覆盖的Java类及前端页面
+     */
+    private final List<GeneratedFile> writtenFiles = new ArrayList<>();
+
+    public GenerationWriter(Project project, GeneratorConfig config, GenerationMetrics metrics) {
+        this.project = project;
+        this.config = config;
+        this.manifest = GenerationManifest.getInstance(project);
+        this.metrics = metrics;
+        this.builder = new GeneratedFileBuilder(project, config, metrics);
+    }
+
+    /**
+     * 写入所有生成结果
+     */
+    public void write(List<GeneratedFile> files) {
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.WRITE)) {
+            this.prepareDirectories(files);
+
+            // 未构建PSI的文件最后统一写入
+            List<GeneratedFile> texts = new ArrayList<>();
+            for (GeneratedFile file : files) {
+                if (file.getType() != GeneratedFile.Type.LIQUIBASE && !file.isPsi()) {
+                    texts.add(file);
+                    continue;
+                }
+
+                switch (file.getType()) {
+                    case JAVA -> this.writeJava(file);
+                    case PAGE -> this.writePage(file);
+                    case LIQUIBASE -> this.writeLiquibase(file);
+                }
+            }
+            this.writeTexts(texts);
+        }
+    }
+
+    /**
+     * 获取本次创建或覆盖的Java类及前端页面
+     */
+    public List<GeneratedFile> getWrittenFiles() {
+        return writtenFiles;
+    }
+
+    /**
+     * 直接通过VFS写入未构建PSI的文件，不经过PSI的添加及格式化；已存在的文件只在需要覆盖时处理
+     */
+    private void writeTexts(List<GeneratedFile> files) {
+        FileDocumentManager documentManager = FileDocumentManager.getInstance();
+        for (GeneratedFile file : files) {
+            VirtualFile directory = file.getType() == GeneratedFile.Type.JAVA
+                    ? this.getPackageDirectory(file).getVirtualFile()
+                    : PsiUtils.of(file.getModule()).getResourceDir(file.getPath()).getVirtualFile();
+            VirtualFile existing = directory.findChild(file.getFileName());
+            if (null != existing && !file.isOverwrite()) {
+                log.info("文件已存在，不再生成：{}", file.getFileName());
+                continue;
+            }
+
+            // 与文档中的内容保持一致，生成清单对比时使用文档内容计算摘要
+            String text = StringUtil.convertLineSeparators(file.getText());
+            try {
+                if (null == existing) {
+                    VfsUtil.saveText(directory.createChildData(this, file.getFileName()), text);
+                } else {
+                    log.info("输入已变化，重新生成文件：{}", file.getFileName());
+
+                    // 文件已在编辑器中打开时通过文档修改，避免与未保存的内容冲突
+                    Document document = documentManager.getCachedDocument(existing);
+                    if (null == document) {
+                        VfsUtil.saveText(existing, text);
+                    } else {
+                        document.setText(text);
+                        documentManager.saveDocument(document);
+                    }
+                }
+                this.record(file, text);
+            } catch (IOException e) {
+                log.warn("写入文件失败：{}", file.getFileName(), e);
+            }
+        }
+    }
+
+    /**
+     * 写入Java类，已存在同名类时只在需要覆盖时处理
+     */
+    private void writeJava(GeneratedFile file) {
+        builder.build(file);
+        PsiDirectory directory = this.getPackageDirectory(file);
+        PsiFile existing = directory.findFile(file.getFileName());
+        if (null != existing) {
+            this.overwrite(existing, file);
+            return;
+        }
+
+        PsiFile added = (PsiFile) directory.add(file.getPsiFile());
+        this.record(file, added.getText());
+    }
+
+    /**
+     * 写入前端页面，已存在时只在需要覆盖时处理
+     */
+    private void writePage(GeneratedFile file) {
+        builder.build(file);
+        PsiUtils psiUtils = PsiUtils.of(file.getModule());
+        VirtualFile existing = psiUtils.getResourceFile(file.getPath());
+        if (null != existing) {
+            Optional.ofNullable(PsiManager.getInstance(project).findFile(existing))
+                    .ifPresent(psiFile -> this.overwrite(psiFile, file));
+            return;
+        }
+
+        PsiFile added = (PsiFile) psiUtils.getResourceDir(file.getPath()).add(file.getPsiFile());
+        this.record(file, added.getText());
+    }
+
+    /**
+     * 覆盖已存在的文件，只有生成清单判断为需要覆盖时才进行处理
+     */
+    private void overwrite(PsiFile existing, GeneratedFile file) {
+        if (!file.isOverwrite()) {
+            log.info("文件已存在，不再生成：{}", file.getFileName());
+            return;
+        }
+
+        PsiDocumentManager documentManager = PsiDocumentManager.getInstance(project);
+        Document document = documentManager.getDocument(existing);
+        if (null == document) {
+            log.warn("无法覆盖文件：{}", file.getFileName());
+            return;
+        }
+
+        log.info("输入已变化，重新生成文件：{}", file.getFileName());
+        document.setText(StringUtil.convertLineSeparators(file.getText()));
+        documentManager.commitDocument(document);
+        this.record(file, document.getImmutableCharSequence());
+    }
+
+    /**
+     * 在生成清单中记录写入的内容
+     *
+     * @param content 实际写入到项目中的内容，与之后从文档中读取的内容一致
+     */
+    private void record(GeneratedFile file, CharSequence content) {
+        metrics.increment(GenerationMetrics.Counter.FILES_WRITTEN);
+        writtenFiles.add(file);
+        if (null != file.getOutputPath() && null != file.getInputHash()) {
+            manifest.record(file.getOutputPath(), file.getInputHash(), content);
+        }
+    }
+
+    /**
+     * 将建表语句追加到liquibase文件中，表已存在时追加修改表结构的语句；
+     * 配置了liquibaseSplit时建表语句保存到单独的文件中，并在主文件中引用
+     */
+    private void writeLiquibase(GeneratedFile file) {
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.LIQUIBASE)) {
+            this.doWriteLiquibase(file);
+        }
+    }
+
+    private void doWriteLiquibase(GeneratedFile file) {
+        PsiUtils psiUtils = PsiUtils.of(file.getModule());
+        String masterPath = config.getLiquibaseFile();
+        LiquibaseChangelogWriter master = this.getChangelogWriter(psiUtils, masterPath);
+        if (null == master) {
+            return;
+        }
+
+        // 建表语句已在主文件中时，修改语句同样追加到主文件
+        if (!config.getLiquibaseSplit() || master.containsTable(file.getTableName())) {
+            this.appendTable(master, file);
+            return;
+        }
+
+        // 每张表单独一个文件
+        String dir = StringUtils.removeEnd(config.getLiquibaseDir(), "/");
+        String fileName = file.getFileName();
+        LiquibaseChangelogWriter tableWriter = this.getChangelogWriter(psiUtils, file.getPath());
+        if (null == tableWriter) {
+            return;
+        }
+        this.appendTable(tableWriter, file);
+
+        // 在主文件中引用，目录在主文件所在目录之下时使用相对路径
+        String masterDir = masterPath.contains("/") ? masterPath.substring(0, masterPath.lastIndexOf("/")) : "";
+        boolean relative = masterDir.isEmpty() || dir.startsWith(masterDir + "/");
+        String includePath = relative && !masterDir.isEmpty() ? dir.substring(masterDir.length() + 1) : dir;
+        if (config.getLiquibaseIncludeAll()) {
+            master.appendIncludeAll(includePath + "/", relative);
+        } else {
+            master.appendInclude(includePath + "/" + fileName, relative);
+        }
+    }
+
+    /**
+     * 表不存在时追加建表语句；表已存在时追加修改表结构的语句，没有表结构快照时以当前表结构作为之后对比的基准
+     */
+    private void appendTable(LiquibaseChangelogWriter writer, GeneratedFile file) {
+        SchemaSnapshot snapshot = SchemaSnapshot.getInstance(project);
+        String tableName = file.getTableName();
+        TableSchema schema = file.getSchema();
+        if (!writer.containsTable(tableName)) {
+            writer.appendChangeSet("create-table-" + tableName, AUTHOR, file.getContent());
+            metrics.increment(GenerationMetrics.Counter.CHANGE_SETS);
+            snapshot.record(schema);
+            return;
+        }
+
+        if (null != file.getAlterContent()) {
+            log.info("表结构已变化，生成修改语句：{}", tableName);
+            if (writer.appendChangeSet(alterChangeSetId(file), AUTHOR, file.getAlterContent())) {
+                metrics.increment(GenerationMetrics.Counter.CHANGE_SETS);
+            }
+            snapshot.record(schema);
+            return;
+        }
+
+        if (config.getLiquibaseDiff() && null == snapshot.get(schema.dialect(), tableName)) {
+            log.info("表没有结构快照，以当前实体作为对比基准：{}", tableName);
+            snapshot.record(schema);
+            return;
+        }
+
+        log.info("表已存在，不再生成建表语句：{}", tableName);
+    }
+
+    /**
+     * 修改表结构的changeSet id，相同的修改语句只会追加一次
+     */
+    static String alterChangeSetId(GeneratedFile file) {
+        return "alter-table-" + file.getTableName() + "-" + GenerationManifest.hash(file.getAlterContent()).substring(0, 8);
+    }
+
+    private LiquibaseChangelogWriter getChangelogWriter(PsiUtils psiUtils, String path) {
+        PsiFile psiFile = psiUtils.getOrCreateResourceFile(path);
+        LiquibaseChangelogWriter writer = LiquibaseChangelogWriter.of(psiFile.getVirtualFile());
+        if (null == writer) {
+            log.warn("无法写入liquibase文件：{}", path);
+        }
+
+        return writer;
+    }
+
+    /**
+     * 在写入类之前一次性获取或者创建所有类所在的包目录
+     */
+    private void prepareDirectories(List<GeneratedFile> files) {
+        for (GeneratedFile file : files) {
+            if (file.getType() == GeneratedFile.Type.JAVA) {
+                this.getPackageDirectory(file);
+            }
+        }
+    }
+
+    /**
+     * 获取类所在目录，如果不存在则进行创建；同一次生成中相同的包只查找一次
+     */
+    private PsiDirectory getPackageDirectory(GeneratedFile file) {
+        PsiDirectory workDir = file.getWorkDir();
+        String key = workDir.getVirtualFile().getPath() + ":" + file.getPackageName();
+        PsiDirectory directory = directories.get(key);
+        if (null == directory || !directory.isValid()) {
+            directory = PsiUtils.of(file.getModule()).metrics(metrics).getOrCreateSubDirectory(workDir, file.getPackageName());
+            directories.put(key, directory);
+        }
+
+        return directory;
+    }
+}
@@ -0,0 +1,163 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.ide.impl.ProjectUtil;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ApplicationStarter;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.project.ProjectManager;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.psi.search.searches.AllClassesSearch;
+import com.intellij.psi.search.searches.AnnotatedElementsSearch;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 无界面批量生成入口
+ * 打开指定的项目，为所有被tableAnnotation注解的实体类生成代码后退出，用于CI或者提交前脚本；
+ * 使用方式：idea.sh stoneCoder 项目路径
+ */
+public class HeadlessGenerationStarter implements ApplicationStarter {
+    private static final int EXIT_OK = 0;
+
+    private static final int EXIT_USAGE = 1;
+
+    private static final int EXIT_FAILED = 2;
+
+    @Override
+    public int getRequiredModality() {
+        // 在后台线程中执行，等待索引及写入时不会阻塞UI线程
+        return NOT_IN_EDT;
+    }
+
+    @Override
+    public void main(@NotNull List<String> args) {
+        // 第一个参数为命令名称
+        if (args.size() < 2) {
+            System.err.println("用法：stoneCoder <项目路径>");
+            System.exit(EXIT_USAGE);
+        }
+
+        Path projectPath = Path.of(args.get(1)).toAbsolutePath().normalize();
+        if (!Files.isDirectory(projectPath)) {
+            System.err.println("项目目录不存在：" + projectPath);
+            System.exit(EXIT_USAGE);
+        }
+
+        Project project = ProjectUtil.openOrImport(projectPath, null, false);
+        if (null == project) {
+            System.err.println("无法打开项目：" + projectPath);
+            System.exit(EXIT_FAILED);
+        }
+
+        int exitCode;
+        try {
+            exitCode = this.generate(project);
+        } catch (Throwable e) {
+            e.printStackTrace(System.err);
+            exitCode = EXIT_FAILED;
+        } finally {
+            ApplicationManager.getApplication().invokeAndWait(
+                    () -> ProjectManager.getInstance().closeAndDispose(project), ModalityState.defaultModalityState());
+        }
+
+        System.exit(exitCode);
+    }
+
+    /**
+     * 查找项目中所有的实体类并生成代码
+     *
+     * @return 退出码
+     */
+    private int generate(Project project) {
+        // 刚打开的项目还在建立索引，配置文件同样通过索引查找，需要与实体类一起在索引完成后加载
+        long start = System.nanoTime();
+        Entities found = ReadAction.nonBlocking(() -> {
+                    GeneratorConfig loaded = GeneratorConfig.load(project);
+                    return new Entities(loaded, CollectionUtils.isEmpty(loaded.getClasses())
+                            ? List.of()
+                            : findEntities(project, loaded));
+                })
+                .inSmartMode(project)
+                .executeSynchronously();
+        GeneratorConfig config = found.config();
+        if (CollectionUtils.isEmpty(config.getClasses())) {
+            System.err.println("config.yaml中未配置classes清单");
+            return EXIT_FAILED;
+        }
+
+        List<PsiClass> entities = found.classes();
+        long indexed = System.nanoTime();
+        System.out.println("找到实体类：" + entities.size() + "，耗时" + toMillis(indexed - start) + "ms");
+        if (entities.isEmpty()) {
+            return EXIT_OK;
+        }
+
+        List<String> errors = new ArrayList<>();
+        GenerationTask task = new GenerationTask(project, config, entities, errors::add);
+        task.run(new EmptyProgressIndicator());
+
+        // 无界面模式下不会自动保存，需要将文档写回磁盘；延迟格式化时先在当前任务中完成格式化，格式化计入本次统计
+        ApplicationManager.getApplication().invokeAndWait(() -> {
+            if (config.getDeferFormat() && !task.getWrittenFiles().isEmpty()) {
+                new GenerationFormatter(project, task.getWrittenFiles(), task.getMetrics()).formatNow();
+            }
+            FileDocumentManager.getInstance().saveAllDocuments();
+        }, ModalityState.defaultModalityState());
+        task.onFinished();
+
+        long cost = Math.max(1, toMillis(System.nanoTime() - indexed));
+        System.out.println("生成文件：" + task.getWrittenCount() + "，耗时" + cost + "ms，"
+                + String.format("%.1f", entities.size() * 1000.0 / cost) + "个实体/秒");
+        System.out.println(task.getSummary());
+        errors.forEach(System.err::println);
+
+        return errors.isEmpty() ? EXIT_OK : EXIT_FAILED;
+    }
+
+    /**
+     * 查找项目中被tableAnnotation注解的类，未配置注解时处理项目中的所有类
+     */
+    private static List<PsiClass> findEntities(Project project, GeneratorConfig config) {
+        GlobalSearchScope projectScope = GlobalSearchScope.projectScope(project);
+        String annotation = config.getTableAnnotation();
+        if (StringUtils.isBlank(annotation)) {
+            return AllClassesSearch.search(projectScope, project).findAll().stream()
+                    .filter(aClass -> null != aClass.getName())
+                    .toList();
+        }
+
+        PsiClass annotationClass = JavaPsiFacade.getInstance(project)
+                .findClass(annotation, GlobalSearchScope.allScope(project));
+        if (null == annotationClass) {
+            System.err.println("找不到注解：" + annotation);
+            return List.of();
+        }
+
+        return AnnotatedElementsSearch.searchPsiClasses(annotationClass, projectScope).findAll().stream()
+                .filter(aClass -> EntityGenerator.isEntity(config, aClass))
+                .toList();
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * 在同一个读操作中加载的配置及实体类
+     */
+    private record Entities(GeneratorConfig config, List<PsiClass> classes) {
+    }
+}
@@ -0,0 +1,249 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Liquibase changelog写入器
+ * 维护changelog中已有的changeSet id及建表语句中的表名索引，新的changeSet直接追加到databaseChangeLog结束标签之前；
+ * 索引缓存在文件上，文件未被外部修改时不再重新扫描，追加时同步更新索引；
+ * 内容只通过Document追加，索引基于文本而非PSI，追加后不提交Document，避免每次追加都重新解析整个文件
+ */
+public class LiquibaseChangelogWriter {
+    private static final Key<ChangelogIndex> INDEX_KEY = Key.create("codeGenerator.liquibaseIndex");
+
+    private static final String ROOT_END_TAG = "</databaseChangeLog>";
+
+    private static final String HEADER = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <databaseChangeLog
+                    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                    xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+                    xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog
+                    http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.1.xsd">
+            """;
+
+    private static final Pattern CHANGE_SET_ID_PATTERN = Pattern.compile("<changeSet\\s[^>]*?\\bid\\s*=\\s*\"([^\"]*)\"");
+
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("<include(?:All)?\\s[^>]*?\\b(?:file|path)\\s*=\\s*\"([^\"]*)\"");
+
+    private static final Pattern CREATE_TABLE_PATTERN = Pattern.compile(
+            "create\\s+table\\s+(?:if\\s+not\\s+exists\\s+)?[`\"]?([\\w.]+)", Pattern.CASE_INSENSITIVE);
+
+    private final Document document;
+
+    private final ChangelogIndex index;
+
+    private LiquibaseChangelogWriter(VirtualFile file, Document document) {
+        this.document = document;
+        this.index = getIndex(file, document);
+    }
+
+    /**
+     * 获取changelog文件的写入器
+     *
+     * @param file changelog文件
+     * @return 写入器，文件无法作为文本编辑时返回null
+     */
+    public static LiquibaseChangelogWriter of(VirtualFile file) {
+        Document document = FileDocumentManager.getInstance().getDocument(file);
+        if (null == document) {
+            return null;
+        }
+
+        return new LiquibaseChangelogWriter(file, document);
+    }
+
+    /**
+     * 是否已经包含指定表的建表语句
+     */
+    public boolean containsTable(String tableName) {
+        return index.tableNames.contains(tableName.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 是否已经包含指定id的changeSet
+     */
+    public boolean containsChangeSet(String id) {
+        return index.changeSetIds.contains(id);
+    }
+
+    /**
+     * 是否已经引用了指定的文件或者目录
+     */
+    public boolean containsInclude(String path) {
+        return index.includes.contains(path);
+    }
+
+    /**
+     * 追加include引用，需要在写操作中调用
+     *
+     * @param file                     引用的changelog文件
+     * @param relativeToChangelogFile 文件路径是否相对于当前changelog
+     * @return 是否追加成功，已引用时返回false
+     */
+    public boolean appendInclude(String file, boolean relativeToChangelogFile) {
+        if (containsInclude(file)) {
+            return false;
+        }
+
+        this.append("    <include file=\"" + StringUtil.escapeXmlEntities(file) + "\" relativeToChangelogFile=\""
+                + relativeToChangelogFile + "\"/>\n");
+        index.includes.add(file);
+        return true;
+    }
+
+    /**
+     * 追加includeAll引用，需要在写操作中调用
+     *
+     * @param path                     引用的目录
+     * @param relativeToChangelogFile 目录路径是否相对于当前changelog
+     * @return 是否追加成功，已引用时返回false
+     */
+    public boolean appendIncludeAll(String path, boolean relativeToChangelogFile) {
+        if (containsInclude(path)) {
+            return false;
+        }
+
+        this.append("    <includeAll path=\"" + StringUtil.escapeXmlEntities(path) + "\" relativeToChangelogFile=\""
+                + relativeToChangelogFile + "\"/>\n");
+        index.includes.add(path);
+        return true;
+    }
+
+    /**
+     * 追加changeSet，需要在写操作中调用
+     *
+     * @param id     changeSet的id
+     * @param author 作者
+     * @param sql    changeSet中执行的sql
+     * @return 是否追加成功，已存在相同id的changeSet时返回false
+     */
+    public boolean appendChangeSet(String id, String author, String sql) {
+        if (containsChangeSet(id)) {
+            return false;
+        }
+
+        this.append(toChangeSet(id, author, sql));
+
+        index.changeSetIds.add(id);
+        indexTables(index, sql);
+        return true;
+    }
+
+    /**
+     * 生成changeSet内容
+     */
+    public static String toChangeSet(String id, String author, String sql) {
+        return "    <changeSet id=\"" + StringUtil.escapeXmlEntities(id) + "\" author=\""
+                + StringUtil.escapeXmlEntities(author) + "\">\n"
+                + "        <sql>" + StringUtil.escapeXmlEntities(sql) + "\n        </sql>\n"
+                + "    </changeSet>\n";
+    }
+
+    /**
+     * 计算追加内容后的changelog内容，不修改文件，用于预览
+     *
+     * @param text    changelog当前内容，文件不存在时为空
+     * @param content 需要追加的内容
+     * @return 追加后的内容
+     */
+    public static String preview(CharSequence text, String content) {
+        int offset = lastIndexOf(text, ROOT_END_TAG);
+        if (-1 == offset) {
+            return HEADER + content + ROOT_END_TAG + "\n";
+        }
+
+        return text.subSequence(0, offset) + content + text.subSequence(offset, text.length());
+    }
+
+    /**
+     * 在databaseChangeLog结束标签之前追加内容，文件为空时先写入头部
+     */
+    private void append(String content) {
+        CharSequence text = document.getImmutableCharSequence();
+        int offset = lastIndexOf(text, ROOT_END_TAG);
+        if (-1 == offset) {
+            // 空文件或者不是有效的changelog，重新写入完整内容
+            document.setText(preview(text, content));
+        } else {
+            document.insertString(offset, content);
+        }
+
+        index.stamp = document.getModificationStamp();
+    }
+
+    /**
+     * 从后往前查找，结束标签总在文件末尾附近，不需要扫描整个文件
+     */
+    private static int lastIndexOf(CharSequence text, String str) {
+        for (int i = text.length() - str.length(); i >= 0; i--) {
+            if (StringUtil.startsWith(text, i, str)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static void indexTables(ChangelogIndex index, CharSequence text) {
+        Matcher matcher = CREATE_TABLE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            index.tableNames.add(matcher.group(1).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * 获取文件的索引，文件内容被外部修改过时重新扫描
+     */
+    private static ChangelogIndex getIndex(VirtualFile file, Document document) {
+        ChangelogIndex index = file.getUserData(INDEX_KEY);
+        if (null != index && index.stamp == document.getModificationStamp()) {
+            return index;
+        }
+
+        index = new ChangelogIndex();
+        CharSequence text = document.getImmutableCharSequence();
+        Matcher matcher = CHANGE_SET_ID_PATTERN.matcher(text);
+        while (matcher.find()) {
+            index.changeSetIds.add(StringUtil.unescapeXmlEntities(matcher.group(1)));
+        }
+        indexTables(index, text);
+        matcher = INCLUDE_PATTERN.matcher(text);
+        while (matcher.find()) {
+            index.includes.add(StringUtil.unescapeXmlEntities(matcher.group(1)));
+        }
+        index.stamp = document.getModificationStamp();
+        file.putUserData(INDEX_KEY, index);
+
+        return index;
+    }
+
+    /**
+     * changelog索引
+     */
+    private static class ChangelogIndex {
+        private final Set<String> changeSetIds = new HashSet<>();
+
+        private final Set<String> tableNames = new HashSet<>();
+
+        /**
+         * include及includeAll引用的文件或者目录
+         */
+        private final Set<String> includes = new HashSet<>();
+
+        /**
+         * 建立索引时文件内容的修改戳
+         */
+        private long stamp;
+    }
+}
@@ -0,0 +1,248 @@
+package com.liuqi.tool.idea.plugin.codegenerator.generator;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.notification.NotificationGroupManager;
+import com.intellij.notification.NotificationType;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.command.WriteCommandAction;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiDirectory;
+import com.intellij.psi.PsiFileFactory;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.DdlParser;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.ParsedTable;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialect;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.SqlDialects;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.ColumnNames;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * 根据建表语句反向生成实体类
+ * 在后台逐条读取sql文件中的语句，只保留解析出的表结构；列类型通过当前方言的类型映射反向得到Java类型，
+ * 所有实体类在一个写命令中创建，已存在的同名类不做处理
+ */
+public class ReverseGenerationTask extends Task.Backgroundable {
+    private static final Logger log = LoggerFactory.getLogger(ReverseGenerationTask.class);
+
+    /**
+     * 写命令名称，撤销时显示
+     */
+    public static final String COMMAND_NAME = "Stone Code Generator (Reverse)";
+
+    /**
+     * 需要导入的Java类型
+     */
+    private static final Map<String, String> IMPORTS = Map.of(
+            "BigDecimal", "java.math.BigDecimal",
+            "LocalDate", "java.time.LocalDate",
+            "LocalTime", "java.time.LocalTime",
+            "LocalDateTime", "java.time.LocalDateTime",
+            "OffsetDateTime", "java.time.OffsetDateTime",
+            "ZonedDateTime", "java.time.ZonedDateTime",
+            "Instant", "java.time.Instant",
+            "Date", "java.util.Date",
+            "Timestamp", "java.sql.Timestamp",
+            "UUID", "java.util.UUID");
+
+    private final GeneratorConfig config;
+
+    /**
+     * 建表语句文件
+     */
+    private final VirtualFile ddlFile;
+
+    /**
+     * 实体类所在目录
+     */
+    private final PsiDirectory directory;
+
+    /**
+     * 实体类所在包
+     */
+    private final String packageName;
+
+    private final Consumer<String> errorHandler;
+
+    private final List<String> errors = new ArrayList<>();
+
+    private int createdCount;
+
+    private int skippedCount;
+
+    public ReverseGenerationTask(Project project, GeneratorConfig config, VirtualFile ddlFile, PsiDirectory directory,
+                                 String packageName, Consumer<String> errorHandler) {
+        super(project, COMMAND_NAME, true);
+        this.config = config;
+        this.ddlFile = ddlFile;
+        this.directory = directory;
+        this.packageName = packageName;
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        Optional<SqlDialect> dialect = SqlDialects.find(config.getDialect());
+        if (dialect.isEmpty()) {
+            errors.add("不支持的数据库方言：" + config.getDialect());
+            return;
+        }
+
+        indicator.setIndeterminate(false);
+        indicator.setText("解析建表语句");
+        List<ParsedTable> tables;
+        long length = Math.max(1, ddlFile.getLength());
+        try (Reader reader = new InputStreamReader(ddlFile.getInputStream(), ddlFile.getCharset())) {
+            DdlParser parser = new DdlParser(reader);
+            while (parser.next()) {
+                indicator.checkCanceled();
+                indicator.setFraction(Math.min(1.0, (double) parser.getOffset() / length));
+            }
+            tables = parser.getTables();
+        } catch (IOException e) {
+            log.warn("读取建表语句失败：{}", ddlFile.getPath(), e);
+            errors.add("读取建表语句失败：" + e.getMessage());
+            return;
+        }
+
+        if (tables.isEmpty()) {
+            errors.add(ddlFile.getName() + "中没有建表语句");
+            return;
+        }
+
+        // 所有实体类在一个写命令中创建，只产生一次可撤销的操作
+        indicator.checkCanceled();
+        indicator.setText("创建实体类");
+        ApplicationManager.getApplication().invokeAndWait(() -> WriteCommandAction.writeCommandAction(myProject)
+                .withName(COMMAND_NAME)
+                .run(() -> this.write(tables, dialect.get())), ModalityState.defaultModalityState());
+    }
+
+    private void write(List<ParsedTable> tables, SqlDialect dialect) {
+        PsiFileFactory fileFactory = PsiFileFactory.getInstance(myProject);
+        for (ParsedTable table : tables) {
+            String className = ColumnNames.toClassName(table.name());
+            String fileName = className + ".java";
+            if (null != directory.findFile(fileName)) {
+                skippedCount++;
+                continue;
+            }
+
+            directory.add(fileFactory.createFileFromText(fileName, JavaFileType.INSTANCE,
+                    this.toSource(className, table, dialect)));
+            createdCount++;
+        }
+    }
+
+    /**
+     * 生成实体类源码
+     */
+    private String toSource(String className, ParsedTable table, SqlDialect dialect) {
+        TreeSet<String> imports = new TreeSet<>();
+        StringBuilder body = new StringBuilder();
+        List<String> fieldNames = ColumnNames.toFieldNames(table.columns().stream().map(ParsedTable.Column::name).toList());
+        for (int i = 0; i < table.columns().size(); i++) {
+            ParsedTable.Column column = table.columns().get(i);
+            String type = dialect.getJavaType(column.type());
+            Optional.ofNullable(IMPORTS.get(type)).ifPresent(imports::add);
+            if (!column.comment().isEmpty()) {
+                appendJavadoc(body, "    ", column.comment());
+                this.appendAnnotation(body, "    ", config.getCommentAnnotation(), column.comment(), imports);
+            }
+
+            // 属性名无法还原成列名时记录列名，避免再次生成时列名发生变化
+            if (ColumnNames.needsColumnAnnotation(fieldNames.get(i), column.name())) {
+                this.appendAnnotation(body, "    ", config.getColumnAnnotation(), column.name(), imports);
+            }
+            body.append("    private ").append(type).append(" ").append(fieldNames.get(i)).append(";\n\n");
+        }
+
+        for (int i = 0; i < table.columns().size(); i++) {
+            String type = dialect.getJavaType(table.columns().get(i).type());
+            String fieldName = fieldNames.get(i);
+            String property = StringUtils.capitalize(fieldName);
+            body.append("    public ").append(type).append(" get").append(property).append("() {\n")
+                    .append("        return ").append(fieldName).append(";\n    }\n\n")
+                    .append("    public void set").append(property).append("(").append(type).append(" ").append(fieldName)
+                    .append(") {\n        this.").append(fieldName).append(" = ").append(fieldName).append(";\n    }\n\n");
+        }
+
+        StringBuilder annotations = new StringBuilder();
+        this.appendAnnotation(annotations, "", config.getTableAnnotation(), table.name(), imports);
+        if (!table.comment().isEmpty()) {
+            this.appendAnnotation(annotations, "", config.getCommentAnnotation(), table.comment(), imports);
+        }
+
+        StringBuilder sb = new StringBuilder(body.length() + 256);
+        sb.append("package ").append(packageName).append(";\n\n");
+        imports.forEach(item -> sb.append("import ").append(item).append(";\n"));
+        if (!imports.isEmpty()) {
+            sb.append("\n");
+        }
+        if (!table.comment().isEmpty()) {
+            appendJavadoc(sb, "", table.comment());
+        }
+        sb.append(annotations)
+                .append("public class ").append(className).append(" {\n")
+                .append(StringUtils.removeEnd(body.toString(), "\n"))
+                .append("}\n");
+        return sb.toString();
+    }
+
+    /**
+     * 追加注解，注解未配置时不做处理
+     */
+    private void appendAnnotation(StringBuilder sb, String indent, String annotation, String value, TreeSet<String> imports) {
+        if (StringUtils.isBlank(annotation)) {
+            return;
+        }
+
+        imports.add(annotation);
+        sb.append(indent).append("@").append(StringUtils.substringAfterLast("." + annotation, "."))
+                .append("(\"").append(StringUtils.replaceEach(value, new String[]{"\\", "\"", "\n", "\r"},
+                        new String[]{"\\\\", "\\\"", "\\n", "\\r"}))
+                .append("\")\n");
+    }
+
+    /**
+     * 追加文档注释，注释中的结束标记进行转义，多行注释逐行加上星号
+     */
+    private static void appendJavadoc(StringBuilder sb, String indent, String comment) {
+        String text = comment.replace("*/", "*&#47;")
+                .replace("\r\n", "\n")
+                .replace('\r', '\n')
+                .replace("\n", "\n" + indent + " * ");
+        sb.append(indent).append("/**\n").append(indent).append(" * ").append(text).append("\n")
+                .append(indent).append(" */\n");
+    }
+
+    @Override
+    public void onFinished() {
+        if (0 != createdCount || 0 != skippedCount) {
+            NotificationGroupManager.getInstance().getNotificationGroup(GenerationTask.NOTIFICATION_GROUP)
+                    .createNotification(COMMAND_NAME, "已创建" + createdCount + "个实体类，跳过" + skippedCount + "个已存在的类",
+                            NotificationType.INFORMATION)
+                    .notify(myProject);
+        }
+
+        if (!errors.isEmpty()) {
+            errorHandler.accept(String.join("\n", errors));
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.liuqi.tool.idea.plugin.codegenerator.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.lang.LighterAST;
+import com.intellij.lang.LighterASTNode;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.JavaTokenType;
+import com.intellij.psi.impl.source.JavaLightTreeUtil;
+import com.intellij.psi.impl.source.tree.ElementType;
+import com.intellij.psi.impl.source.tree.JavaElementType;
+import com.intellij.psi.impl.source.tree.LightTreeUtil;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.DefaultFileTypeSpecificInputFilter;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.indexing.PsiDependentFileContent;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.IOUtil;
+import com.intellij.util.io.KeyDescriptor;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 实体类索引
+ * 以注解的全名为key，记录每个Java文件中被该注解标注的顶层类的全名；索引时不能解析引用，注解全名按写法及文件的导入推算，
+ * 通过通配符导入的注解无法确定来源，每个可能的全名都会记录；注解、导入及包名均从轻量语法树中读取，不构建PSI；
+ * 索引与生成配置无关，查询时再按配置的tableAnnotation取出实体类
+ */
+public class EntityIndex extends FileBasedIndexExtension<String, List<String>> {
+    public static final ID<String, List<String>> NAME = ID.create("com.liuqi.tool.idea.plugin.codegenerator.entity");
+
+    @Override
+    public @NotNull ID<String, List<String>> getName() {
+        return NAME;
+    }
+
+    @Override
+    public @NotNull DataIndexer<String, List<String>, FileContent> getIndexer() {
+        return inputData -> {
+            // 没有注解的文件不需要解析
+            if (!StringUtil.contains(inputData.getContentAsText(), "@")
+                    || !(inputData instanceof PsiDependentFileContent content)) {
+                return Map.of();
+            }
+
+            // 只读取轻量语法树，不构建PSI
+            LighterAST tree = content.getLighterAST();
+            LighterASTNode root = tree.getRoot();
+            Imports imports = new Imports(tree, root);
+            Map<String, List<String>> result = new HashMap<>();
+            for (LighterASTNode aClass : LightTreeUtil.getChildrenOfType(tree, root, JavaElementType.CLASS)) {
+                String className = JavaLightTreeUtil.getNameIdentifierText(tree, aClass);
+                LighterASTNode modifierList = LightTreeUtil.firstChildOfType(tree, aClass, JavaElementType.MODIFIER_LIST);
+                if (null == className || null == modifierList) {
+                    continue;
+                }
+
+                String qualifiedName = imports.packageName.isEmpty() ? className : imports.packageName + "." + className;
+                for (LighterASTNode annotation : LightTreeUtil.getChildrenOfType(tree, modifierList, JavaElementType.ANNOTATION)) {
+                    String reference = getReferenceText(tree, annotation);
+                    if (null == reference) {
+                        continue;
+                    }
+
+                    for (String name : imports.getQualifiedNames(reference)) {
+                        List<String> classes = result.computeIfAbsent(name, key -> new ArrayList<>(1));
+                        if (!classes.contains(qualifiedName)) {
+                            classes.add(qualifiedName);
+                        }
+                    }
+                }
+            }
+
+            return result;
+        };
+    }
+
+    /**
+     * 获取节点下的引用写法，去掉其中的空白及注释
+     */
+    private static String getReferenceText(LighterAST tree, LighterASTNode node) {
+        LighterASTNode reference = LightTreeUtil.firstChildOfType(tree, node, JavaElementType.JAVA_CODE_REFERENCE);
+        return null == reference ? null
+                : LightTreeUtil.toFilteredString(tree, reference, ElementType.JAVA_COMMENT_OR_WHITESPACE_BIT_SET);
+    }
+
+    @Override
+    public @NotNull KeyDescriptor<String> getKeyDescriptor() {
+        return EnumeratorStringDescriptor.INSTANCE;
+    }
+
+    @Override
+    public @NotNull DataExternalizer<List<String>> getValueExternalizer() {
+        return new DataExternalizer<>() {
+            @Override
+            public void save(@NotNull DataOutput out, List<String> value) throws IOException {
+                DataInputOutputUtil.writeINT(out, value.size());
+                for (String item : value) {
+                    IOUtil.writeUTF(out, item);
+                }
+            }
+
+            @Override
+            public List<String> read(@NotNull DataInput in) throws IOException {
+                int size = DataInputOutputUtil.readINT(in);
+                List<String> value = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    value.add(IOUtil.readUTF(in));
+                }
+                return value;
+            }
+        };
+    }
+
+    @Override
+    public int getVersion() {
+        return 3;
+    }
+
+    @Override
+    public FileBasedIndex.@NotNull InputFilter getInputFilter() {
+        return new DefaultFileTypeSpecificInputFilter(JavaFileType.INSTANCE);
+    }
+
+    @Override
+    public boolean dependsOnFileContent() {
+        return true;
+    }
+
+    /**
+     * 文件的包名及导入，只读取轻量语法树中导入语句的文本，不解析引用
+     */
+    private static class Imports {
+        private final String packageName;
+
+        /**
+         * 单类导入：短名称 -> 全名
+         */
+        private final Map<String, String> classes = new HashMap<>();
+
+        /**
+         * 通配符导入的包名
+         */
+        private final List<String> packages = new ArrayList<>();
+
+        Imports(LighterAST tree, LighterASTNode root) {
+            LighterASTNode packageStatement = LightTreeUtil.firstChildOfType(tree, root, JavaElementType.PACKAGE_STATEMENT);
+            String name = null == packageStatement ? null : getReferenceText(tree, packageStatement);
+            this.packageName = null == name ? "" : name;
+
+            LighterASTNode importList = LightTreeUtil.firstChildOfType(tree, root, JavaElementType.IMPORT_LIST);
+            if (null == importList) {
+                return;
+            }
+            for (LighterASTNode statement : LightTreeUtil.getChildrenOfType(tree, importList, JavaElementType.IMPORT_STATEMENT)) {
+                String reference = getReferenceText(tree, statement);
+                if (null == reference) {
+                    continue;
+                }
+
+                if (null != LightTreeUtil.firstChildOfType(tree, statement, JavaTokenType.ASTERISK)) {
+                    packages.add(reference);
+                } else {
+                    classes.put(StringUtil.getShortName(reference), reference);
+                }
+            }
+        }
+
+        /**
+         * 推算注解可能的全名：单类导入的类、写法本身即为全名、同一个包中的类以及通配符导入的包中的类
+         *
+         * @param text 注解名称的写法，已去掉空白，如Table、javax.persistence.Table、Outer.Inner
+         */
+        List<String> getQualifiedNames(String text) {
+            String name = text;
+            String first = StringUtil.substringBefore(name, ".");
+            String imported = classes.get(null == first ? name : first);
+            if (null != imported) {
+                return List.of(null == first ? imported : imported + name.substring(first.length()));
+            }
+
+            List<String> result = new ArrayList<>(packages.size() + 2);
+            if (null != first) {
+                result.add(name);
+            }
+            result.add(packageName.isEmpty() ? name : packageName + "." + name);
+            packages.forEach(item -> result.add(item + "." + name));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.liuqi.tool.idea.plugin.codegenerator.index;
+
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.ClassDefiner;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.EntityGenerator;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GenerationManifest;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateCompiler;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.MyStringUtils;
+import com.liuqi.tool.idea.plugin.codegenerator.utils.PsiUtils;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 实体生成结果检查
+ * 从实体类索引中按注解全名取出所有实体，按类生成配置推算每个实体应生成的类，找出不存在的类以及再次生成时会被覆盖的过期类；
+ * 只读取索引及文件信息，不解析实体类，需要在智能模式的读操作中调用
+ */
+public class EntityOutputChecker {
+    private final Project project;
+
+    private final GeneratorConfig config;
+
+    /**
+     * 类生成配置，整个检查只加载一次
+     */
+    private final List<ClassDefiner> definers = new ArrayList<>();
+
+    public EntityOutputChecker(Project project, GeneratorConfig config) {
+        this.project = project;
+        this.config = config;
+
+        if (CollectionUtils.isNotEmpty(config.getClasses())) {
+            config.getClasses().forEach(clazz -> definers.add(PsiUtils.loadClassDefiner(project, clazz)));
+        }
+    }
+
+    /**
+     * 检查所有实体
+     *
+     * @return 有缺少或者过期生成类的实体，按类名排序；未配置tableAnnotation时返回空列表
+     */
+    public List<Status> check() {
+        String annotation = config.getTableAnnotation();
+        List<Status> result = new ArrayList<>();
+        if (StringUtils.isBlank(annotation) || definers.isEmpty()) {
+            return result;
+        }
+
+        // 索引中以注解的全名为key，短名称相同的其它注解不会被取出
+        ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(project);
+        GenerationManifest manifest = GenerationManifest.getInstance(project);
+        FileBasedIndex.getInstance().processValues(EntityIndex.NAME, annotation.trim(),
+                null, (file, classes) -> {
+                    VirtualFile sourceRoot = fileIndex.getSourceRootForFile(file);
+                    if (null == sourceRoot) {
+                        return true;
+                    }
+
+                    for (String className : classes) {
+                        ProgressManager.checkCanceled();
+                        Status status = this.check(manifest, file, sourceRoot, className);
+                        if (null != status) {
+                            result.add(status);
+                        }
+                    }
+                    return true;
+                }, GlobalSearchScope.projectScope(project));
+
+        result.sort(Comparator.comparing(Status::className));
+        return result;
+    }
+
+    /**
+     * 检查单个实体，生成类都已存在且未过期时返回null
+     */
+    private Status check(GenerationManifest manifest, VirtualFile file, VirtualFile sourceRoot, String className) {
+        String packageName = className.contains(".") ? StringUtils.substringBeforeLast(className, ".") : "";
+        String basePackage = EntityGenerator.getBasePackage(config, packageName);
+        if (null == basePackage) {
+            return null;
+        }
+
+        // 与生成时的类名变量一致；类名中不使用实体注释
+        String entityName = StringUtils.substringAfterLast("." + className, ".").replace("Entity", "");
+        Map<String, String> variables = Map.of("T", entityName, "PATH", MyStringUtils.toKebabCase(entityName),
+                "COMMENT", "");
+
+        List<String> missing = new ArrayList<>();
+        List<String> stale = new ArrayList<>();
+        for (ClassDefiner definer : definers) {
+            if (StringUtils.isBlank(definer.getDir()) || StringUtils.isBlank(definer.getName())) {
+                continue;
+            }
+
+            String name = TemplateCompiler.compile(definer.getName()).render(variables);
+            String relativePath = (basePackage + "." + definer.getDir().replaceAll("/", "."))
+                    .replace(".", "/") + "/" + name + ".java";
+            VirtualFile output = sourceRoot.findFileByRelativePath(relativePath);
+            if (null == output) {
+                missing.add(name);
+            } else if (manifest.isStale(output.getPath(), output, file.getTimeStamp())) {
+                // 只有由生成器生成且未被手工修改的类才会被重新生成
+                stale.add(name);
+            }
+        }
+
+        return missing.isEmpty() && stale.isEmpty() ? null : new Status(className, file, missing, stale);
+    }
+
+    /**
+     * 实体的生成状态
+     *
+     * @param className 实体类全名
+     * @param file      实体类所在文件
+     * @param missing   不存在的生成类
+     * @param stale     实体修改后未重新生成且未被手工修改的类
+     */
+    public record Status(String className, VirtualFile file, List<String> missing, List<String> stale) {
+    }
+}
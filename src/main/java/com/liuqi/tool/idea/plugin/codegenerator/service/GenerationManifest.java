@@ -0,0 +1,223 @@
+package com.liuqi.tool.idea.plugin.codegenerator.service;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileEditor.FileDocumentManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * 生成清单
+ * 记录每个生成文件的输入摘要（实体模型及模板）和输出摘要，再次生成时只重新生成输入发生变化且未被手工修改过的文件；
+ * 清单保存在项目的.idea/codeGenerator/manifest.properties中
+ */
+@Service(Service.Level.PROJECT)
+public final class GenerationManifest {
+    private static final Logger log = LoggerFactory.getLogger(GenerationManifest.class);
+
+    /**
+     * 生成文件的处理方式
+     */
+    public enum Decision {
+        /**
+         * 文件不存在，需要创建
+         */
+        CREATE,
+
+        /**
+         * 输入发生了变化且文件未被手工修改，需要覆盖
+         */
+        OVERWRITE,
+
+        /**
+         * 不需要处理
+         */
+        SKIP
+    }
+
+    private final Project project;
+
+    /**
+     * 文件路径 -> 输入摘要:输出摘要:最近一次生成或检查的时间
+     */
+    private Properties entries;
+
+    private boolean changed;
+
+    public GenerationManifest(Project project) {
+        this.project = project;
+    }
+
+    public static GenerationManifest getInstance(Project project) {
+        return project.getService(GenerationManifest.class);
+    }
+
+    /**
+     * 判断生成文件的处理方式
+     *
+     * @param path      生成文件的完整路径
+     * @param inputHash 本次生成的输入摘要
+     * @param existing  已存在的文件，不存在时为null
+     * @return 处理方式
+     */
+    public synchronized Decision check(String path, String inputHash, VirtualFile existing) {
+        if (null == existing) {
+            return Decision.CREATE;
+        }
+
+        String key = this.toKey(path);
+        String value = this.getEntries().getProperty(key);
+        if (null == value) {
+            // 不是由生成器生成的文件，不做处理
+            return Decision.SKIP;
+        }
+
+        String[] hashes = value.split(":");
+        if (hashes[0].equals(inputHash)) {
+            this.touch(key, hashes);
+            return Decision.SKIP;
+        }
+
+        if (!this.isUnmodified(hashes, existing)) {
+            log.info("文件生成后已被修改，不再覆盖：{}", path);
+            this.touch(key, hashes);
+            return Decision.SKIP;
+        }
+
+        return Decision.OVERWRITE;
+    }
+
+    /**
+     * 判断生成文件是否已过期：由生成器生成、生成后未被手工修改，且实体在最近一次生成或检查之后被修改过；
+     * 实体修改后输入未变化或者文件已被手工修改时，生成时会更新检查时间，之后不再当作过期
+     *
+     * @param path            生成文件的完整路径
+     * @param existing        已存在的生成文件
+     * @param entityTimestamp 实体类文件的修改时间
+     */
+    public synchronized boolean isStale(String path, VirtualFile existing, long entityTimestamp) {
+        String value = this.getEntries().getProperty(this.toKey(path));
+        if (null == value) {
+            return false;
+        }
+
+        // 旧的清单中没有检查时间，使用文件的修改时间
+        String[] hashes = value.split(":");
+        long checkedAt = hashes.length < 3 ? existing.getTimeStamp() : Long.parseLong(hashes[2]);
+        return checkedAt < entityTimestamp && this.isUnmodified(hashes, existing);
+    }
+
+    /**
+     * 记录生成结果
+     *
+     * @param path      生成文件的完整路径
+     * @param inputHash 输入摘要
+     * @param content   写入的内容
+     */
+    public synchronized void record(String path, String inputHash, CharSequence content) {
+        this.getEntries().setProperty(this.toKey(path), inputHash + ":" + hash(content) + ":" + System.currentTimeMillis());
+        changed = true;
+    }
+
+    /**
+     * 文件内容与生成时记录的输出摘要一致
+     */
+    private boolean isUnmodified(String[] hashes, VirtualFile existing) {
+        Document document = FileDocumentManager.getInstance().getDocument(existing);
+        return null != document && hashes.length >= 2 && hashes[1].equals(hash(document.getImmutableCharSequence()));
+    }
+
+    /**
+     * 更新检查时间，摘要保持不变
+     */
+    private void touch(String key, String[] hashes) {
+        String outputHash = hashes.length < 2 ? "" : hashes[1];
+        this.getEntries().setProperty(key, hashes[0] + ":" + outputHash + ":" + System.currentTimeMillis());
+        changed = true;
+    }
+
+    /**
+     * 保存清单
+     */
+    public synchronized void save() {
+        Path file = this.getFile();
+        if (!changed || null == file) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                entries.store(writer, "Stone Code Generator manifest");
+            }
+            changed = false;
+        } catch (IOException e) {
+            log.warn("保存生成清单失败", e);
+        }
+    }
+
+    /**
+     * 计算内容摘要
+     */
+    public static String hash(CharSequence... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (CharSequence part : parts) {
+                if (null != part) {
+                    digest.update(part.toString().getBytes(StandardCharsets.UTF_8));
+                }
+                // 分隔符，避免不同的拆分方式得到相同的摘要
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Properties getEntries() {
+        if (null == entries) {
+            entries = new Properties();
+            Path file = this.getFile();
+            if (null != file && Files.exists(file)) {
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    entries.load(reader);
+                } catch (IOException e) {
+                    log.warn("加载生成清单失败", e);
+                }
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * 清单中使用相对于项目根目录的路径
+     */
+    private String toKey(String path) {
+        String basePath = project.getBasePath();
+        if (null != basePath && path.startsWith(basePath + "/")) {
+            return path.substring(basePath.length() + 1);
+        }
+
+        return path;
+    }
+
+    private Path getFile() {
+        String basePath = project.getBasePath();
+        return null == basePath ? null : Path.of(basePath, ".idea", "codeGenerator", "manifest.properties");
+    }
+}
@@ -0,0 +1,248 @@
+package com.liuqi.tool.idea.plugin.codegenerator.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.IndexNotReadyException;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFileMoveEvent;
+import com.intellij.openapi.vfs.newvfs.events.VFilePropertyChangeEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.util.messages.MessageBusConnection;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.ClassDefiner;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.template.CompiledTemplate;
+import com.liuqi.tool.idea.plugin.codegenerator.template.TemplateCompiler;
+import org.apache.commons.collections.MapUtils;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.Yaml;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 生成配置缓存服务
+ * 缓存解析后的config.yaml、各类生成配置及编译后的模板片段，以文件的修改戳作为缓存校验依据；
+ * code-generator目录下有文件增删改时只清除对应文件的缓存，目录本身被删除或者移动时清空缓存；
+ * 配置文件通过索引查找，索引更新期间找不到的文件不缓存，索引更新完成后清除所有未找到文件的缓存
+ */
+@Service(Service.Level.PROJECT)
+public final class GeneratorConfigService implements Disposable {
+    private static final Logger log = LoggerFactory.getLogger(GeneratorConfigService.class);
+
+    /**
+     * 配置文件所在目录名称
+     */
+    public static final String CONFIG_DIR = "code-generator";
+
+    private static final String CONFIG_FILE = "config.yaml";
+
+    /**
+     * 模板片段文件的后缀，模板中通过$@name$引用code-generator/name.fragment
+     */
+    public static final String FRAGMENT_SUFFIX = ".fragment";
+
+    private final Project project;
+
+    /**
+     * 文件名 -> 缓存内容
+     */
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    public GeneratorConfigService(Project project) {
+        this.project = project;
+
+        MessageBusConnection connection = project.getMessageBus().connect(this);
+        connection.subscribe(VirtualFileManager.VFS_CHANGES, new BulkFileListener() {
+            @Override
+            public void after(@NotNull List<? extends VFileEvent> events) {
+                for (VFileEvent event : events) {
+                    invalidate(event.getPath());
+                    invalidate(getOldPath(event));
+                }
+            }
+        });
+        connection.subscribe(DumbService.DUMB_MODE, new DumbService.DumbModeListener() {
+            @Override
+            public void exitDumbMode() {
+                // 索引未完成时可能找不到已存在的配置文件
+                cache.values().removeIf(entry -> null == entry.file());
+            }
+        });
+    }
+
+    public static GeneratorConfigService getInstance(Project project) {
+        return project.getService(GeneratorConfigService.class);
+    }
+
+    /**
+     * 获取生成主配置
+     */
+    public GeneratorConfig getConfig() {
+        return load(CONFIG_FILE, yaml(GeneratorConfigService::parseConfig, GeneratorConfig::new), GeneratorConfig::new);
+    }
+
+    /**
+     * 根据名称获取类生成配置
+     */
+    public ClassDefiner getClassDefiner(String className) {
+        return load(className + ".yaml", yaml(GeneratorConfigService::parseClassDefiner, ClassDefiner::new), ClassDefiner::new);
+    }
+
+    /**
+     * 根据名称获取编译后的模板片段，片段文件只在修改后重新编译
+     *
+     * @param name 片段名称，即code-generator目录下不带后缀的片段文件名
+     * @return 编译后的片段，片段文件不存在时返回null
+     */
+    public CompiledTemplate getFragment(String name) {
+        return load(name + FRAGMENT_SUFFIX, TemplateCompiler::parse, () -> null);
+    }
+
+    /**
+     * 清空缓存
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    /**
+     * 清除指定路径对应的缓存
+     */
+    private void invalidate(String path) {
+        if (null == path) {
+            return;
+        }
+
+        if (path.endsWith("/" + CONFIG_DIR)) {
+            this.invalidate();
+        } else if (isConfigPath(path)) {
+            cache.remove(path.substring(path.lastIndexOf('/') + 1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(String fileName, Function<String, T> parser, Supplier<T> defaultSupplier) {
+        CacheEntry entry = cache.get(fileName);
+        if (null != entry && entry.isUpToDate()) {
+            return null == entry.value ? defaultSupplier.get() : (T) entry.value;
+        }
+
+        boolean dumb = DumbService.isDumb(project);
+        PsiFile file;
+        try {
+            file = findConfigFile(fileName);
+        } catch (IndexNotReadyException e) {
+            log.debug("索引未完成，无法查找配置{}", fileName);
+            return defaultSupplier.get();
+        }
+
+        if (null == file) {
+            // 未找到的文件也进行缓存，新建文件或者索引更新完成时会通过监听清除；索引更新期间的结果不可靠，不缓存
+            if (!dumb) {
+                cache.put(fileName, new CacheEntry(null, -1, null));
+            }
+            return defaultSupplier.get();
+        }
+
+        long stamp = file.getModificationStamp();
+        T value = parser.apply(file.getText());
+        log.debug("加载配置{}：{}", fileName, value);
+        cache.put(fileName, new CacheEntry(file, stamp, value));
+        return null == value ? defaultSupplier.get() : value;
+    }
+
+    /**
+     * 解析yaml内容，内容为空时使用默认值
+     */
+    private static <T> Function<String, T> yaml(Function<Map<String, Object>, T> parser, Supplier<T> defaultSupplier) {
+        return text -> {
+            Map<String, Object> obj = new Yaml().load(text);
+            return null == obj ? defaultSupplier.get() : parser.apply(obj);
+        };
+    }
+
+    private PsiFile findConfigFile(String fileName) {
+        PsiFile[] files = PsiShortNamesCache.getInstance(project).getFilesByName(fileName);
+        for (PsiFile file : files) {
+            if (null != file.getContainingDirectory() && file.getContainingDirectory().getName().equals(CONFIG_DIR)) {
+                return file;
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static GeneratorConfig parseConfig(Map<String, Object> obj) {
+        return new GeneratorConfig()
+                .setClasses((List<String>) obj.get("classes"))
+                .setBasePackage(MapUtils.getString(obj, "basePackage"))
+                .setTableAnnotation(MapUtils.getString(obj, "tableAnnotation"))
+                .setCommentAnnotation(MapUtils.getString(obj, "commentAnnotation"))
+                .setColumnAnnotation(MapUtils.getString(obj, "columnAnnotation"))
+                .setWithLiquibase(MapUtils.getBooleanValue(obj, "withLiquibase", false))
+                .setPageTemplate(MapUtils.getString(obj, "pageTemplate"))
+                .setLiquibaseFile(MapUtils.getString(obj, "liquibaseFile", "liquibase/master.xml"))
+                .setLiquibaseSplit(MapUtils.getBooleanValue(obj, "liquibaseSplit", false))
+                .setLiquibaseDir(MapUtils.getString(obj, "liquibaseDir", "liquibase/changes"))
+                .setLiquibaseIncludeAll(MapUtils.getBooleanValue(obj, "liquibaseIncludeAll", false))
+                .setLiquibaseDiff(MapUtils.getBooleanValue(obj, "liquibaseDiff", false))
+                .setFastWrite(MapUtils.getBooleanValue(obj, "fastWrite", false))
+                .setDeferFormat(MapUtils.getBooleanValue(obj, "deferFormat", false))
+                .setDialect(MapUtils.getString(obj, "dialect", "mysql"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ClassDefiner parseClassDefiner(Map<String, Object> obj) {
+        return new ClassDefiner()
+                .setDir(MapUtils.getString(obj, "dir"))
+                .setName(MapUtils.getString(obj, "name"))
+                .setImports((List<String>) obj.get("imports"))
+                .setLike(MapUtils.getString(obj, "like"))
+                .setTemplate(MapUtils.getString(obj, "template"))
+                .setComment(MapUtils.getString(obj, "comment"))
+                .setPsi(MapUtils.getBooleanValue(obj, "psi", false));
+    }
+
+    private static boolean isConfigPath(String path) {
+        return null != path && (path.contains("/" + CONFIG_DIR + "/") || path.endsWith("/" + CONFIG_DIR));
+    }
+
+    private static String getOldPath(VFileEvent event) {
+        if (event instanceof VFileMoveEvent moveEvent) {
+            return moveEvent.getOldPath();
+        } else if (event instanceof VFilePropertyChangeEvent propertyChangeEvent) {
+            return propertyChangeEvent.getOldPath();
+        }
+
+        return null;
+    }
+
+    @Override
+    public void dispose() {
+        cache.clear();
+    }
+
+    /**
+     * 缓存项，文件修改戳一致时有效；未找到文件的缓存项在清除前一直有效
+     */
+    private record CacheEntry(PsiFile file, long stamp, Object value) {
+        boolean isUpToDate() {
+            if (null == file) {
+                return true;
+            }
+
+            return file.isValid() && file.getModificationStamp() == stamp;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.liuqi.tool.idea.plugin.codegenerator.service;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.liuqi.tool.idea.plugin.codegenerator.dialect.TableSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 表结构快照
+ * 记录每张表最后一次写入changelog的表结构，表已存在时与当前实体的表结构对比生成修改语句；
+ * 快照保存在项目的.idea/codeGenerator/schema.properties中，每列一条记录
+ */
+@Service(Service.Level.PROJECT)
+public final class SchemaSnapshot {
+    private static final Logger log = LoggerFactory.getLogger(SchemaSnapshot.class);
+
+    private final Project project;
+
+    /**
+     * 方言/表名 -> 表结构
+     */
+    private Map<String, TableSchema> schemas;
+
+    private boolean changed;
+
+    public SchemaSnapshot(Project project) {
+        this.project = project;
+    }
+
+    public static SchemaSnapshot getInstance(Project project) {
+        return project.getService(SchemaSnapshot.class);
+    }
+
+    /**
+     * 获取上次记录的表结构
+     *
+     * @param dialect   方言名称
+     * @param tableName 表名
+     * @return 表结构，没有记录时返回null
+     */
+    public synchronized TableSchema get(String dialect, String tableName) {
+        return this.getSchemas().get(dialect + "/" + tableName);
+    }
+
+    /**
+     * 记录表结构，替换该表原有的记录
+     */
+    public synchronized void record(TableSchema schema) {
+        this.getSchemas().put(schema.dialect() + "/" + schema.tableName(), schema);
+        changed = true;
+    }
+
+    /**
+     * 保存快照
+     */
+    public synchronized void save() {
+        Path file = this.getFile();
+        if (!changed || null == file) {
+            return;
+        }
+
+        // 每列一条记录：方言/表名/列名 = 类型及默认值\t是否允许为空\t注释
+        Properties properties = new Properties();
+        for (TableSchema schema : schemas.values()) {
+            for (TableSchema.Column column : schema.columns()) {
+                properties.setProperty(schema.dialect() + "/" + schema.tableName() + "/" + column.name(),
+                        column.definition() + "\t" + column.nullable() + "\t" + column.comment());
+            }
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Stone Code Generator schema snapshot");
+            }
+            changed = false;
+        } catch (IOException e) {
+            log.warn("保存表结构快照失败", e);
+        }
+    }
+
+    private Map<String, TableSchema> getSchemas() {
+        if (null == schemas) {
+            schemas = new HashMap<>();
+            Path file = this.getFile();
+            if (null != file && Files.exists(file)) {
+                Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                } catch (IOException e) {
+                    log.warn("加载表结构快照失败", e);
+                }
+                schemas.putAll(parse(properties));
+            }
+        }
+
+        return schemas;
+    }
+
+    private static Map<String, TableSchema> parse(Properties properties) {
+        Map<String, List<TableSchema.Column>> columns = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            int idx = key.lastIndexOf('/');
+            String[] values = properties.getProperty(key).split("\t", 3);
+            if (-1 == idx || values.length < 3) {
+                log.warn("无效的表结构快照记录：{}", key);
+                continue;
+            }
+
+            columns.computeIfAbsent(key.substring(0, idx), k -> new ArrayList<>())
+                    .add(new TableSchema.Column(key.substring(idx + 1), values[0], Boolean.parseBoolean(values[1]), values[2]));
+        }
+
+        Map<String, TableSchema> result = new HashMap<>();
+        columns.forEach((key, list) -> {
+            int idx = key.indexOf('/');
+            if (-1 != idx) {
+                result.put(key, new TableSchema(key.substring(0, idx), key.substring(idx + 1), list));
+            }
+        });
+
+        return result;
+    }
+
+    private Path getFile() {
+        String basePath = project.getBasePath();
+        return null == basePath ? null : Path.of(basePath, ".idea", "codeGenerator", "schema.properties");
+    }
+}
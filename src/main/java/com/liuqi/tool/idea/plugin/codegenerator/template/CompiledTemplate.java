@@ -0,0 +1,212 @@
+package com.liuqi.tool.idea.plugin.codegenerator.template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 编译后的模板
+ * 模板在编译时被拆分成文本片段、占位符片段、循环块片段及片段引用，渲染时只需要顺序输出一次即可，不再需要逐个占位符进行replaceAll
+ *
+ * @see TemplateCompiler
+ */
+public class CompiledTemplate {
+    private final String source;
+
+    private final List<Segment> segments;
+
+    /**
+     * 所有文本片段的总长度，用于预估输出大小
+     */
+    private final int literalLength;
+
+    CompiledTemplate(String source, List<Segment> segments) {
+        this.source = source;
+        this.segments = segments;
+        this.literalLength = segments.stream()
+                .filter(segment -> segment instanceof Literal)
+                .mapToInt(segment -> ((Literal) segment).text().length())
+                .sum();
+    }
+
+    /**
+     * 获取模板原始内容
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 获取模板中使用到的占位符名称，不包括循环块内部的占位符
+     */
+    public Set<String> getPlaceholders() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment instanceof Placeholder placeholder) {
+                names.add(placeholder.name());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 获取模板中的循环块名称
+     */
+    public Set<String> getLoops() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment instanceof LoopBlock loopBlock) {
+                names.add(loopBlock.name());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 获取模板中引用的片段名称，包括循环块内部的引用，不包括片段中再引用的片段
+     */
+    public Set<String> getIncludes() {
+        Set<String> names = new LinkedHashSet<>();
+        for (Segment segment : segments) {
+            if (segment instanceof Include include) {
+                names.add(include.name());
+            } else if (segment instanceof LoopBlock loopBlock) {
+                names.addAll(loopBlock.body().getIncludes());
+            }
+        }
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param variables 占位符取值，key为不带$的占位符名称，如T、PATH
+     * @return 渲染结果
+     */
+    public String render(Map<String, String> variables) {
+        return render(new TemplateContext(variables));
+    }
+
+    /**
+     * 渲染模板
+     *
+     * @param context 渲染上下文，包含占位符取值及循环块数据
+     * @return 渲染结果
+     */
+    public String render(TemplateContext context) {
+        StringBuilder sb = new StringBuilder(literalLength + 256);
+        render(context, sb);
+        return sb.toString();
+    }
+
+    /**
+     * 渲染模板到指定的StringBuilder中
+     */
+    public void render(Map<String, String> variables, StringBuilder out) {
+        render(new TemplateContext(variables), out);
+    }
+
+    /**
+     * 渲染模板到指定的StringBuilder中
+     */
+    public void render(TemplateContext context, StringBuilder out) {
+        try {
+            renderTo(context, out);
+        } catch (IOException e) {
+            // StringBuilder不会抛出IO异常
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 渲染模板到指定的Writer中
+     */
+    public void render(Map<String, String> variables, Writer writer) throws IOException {
+        renderTo(new TemplateContext(variables), writer);
+    }
+
+    /**
+     * 渲染模板到指定的Writer中
+     */
+    public void render(TemplateContext context, Writer writer) throws IOException {
+        renderTo(context, writer);
+    }
+
+    private void renderTo(TemplateContext context, Appendable out) throws IOException {
+        for (Segment segment : segments) {
+            segment.appendTo(context, out);
+        }
+    }
+
+    /**
+     * 模板片段
+     */
+    interface Segment {
+        void appendTo(TemplateContext context, Appendable out) throws IOException;
+    }
+
+    /**
+     * 普通文本片段，原样输出
+     */
+    record Literal(String text) implements Segment {
+        @Override
+        public void appendTo(TemplateContext context, Appendable out) throws IOException {
+            out.append(text);
+        }
+    }
+
+    /**
+     * 占位符片段，如$T$
+     * 未提供取值的占位符原样输出
+     */
+    record Placeholder(String name, String raw) implements Segment {
+        @Override
+        public void appendTo(TemplateContext context, Appendable out) throws IOException {
+            String value = context.getVariable(name);
+            out.append(null == value ? raw : value);
+        }
+    }
+
+    /**
+     * 片段引用，如$@header$
+     * 引用的片段使用当前上下文渲染，片段中可以使用占位符、循环块及引用其它片段；找不到片段时原样输出
+     */
+    record Include(String name, String raw) implements Segment {
+        @Override
+        public void appendTo(TemplateContext context, Appendable out) throws IOException {
+            CompiledTemplate fragment = context.getFragment(name);
+            if (null == fragment) {
+                out.append(raw);
+                return;
+            }
+
+            fragment.renderTo(context.include(), out);
+        }
+    }
+
+    /**
+     * 循环块片段，如$$$loopFields...$$$
+     * 每一项使用循环体渲染一次，每项之前换行缩进；未提供数据的循环块原样输出
+     */
+    record LoopBlock(String name, CompiledTemplate body, String raw) implements Segment {
+        @Override
+        public void appendTo(TemplateContext context, Appendable out) throws IOException {
+            List<Map<String, String>> items = context.getLoop(name);
+            if (null == items) {
+                out.append(raw);
+                return;
+            }
+
+            out.append("\n\t");
+            for (Map<String, String> item : items) {
+                body.renderTo(context.child(item), out);
+                out.append("\n\t");
+            }
+        }
+    }
+}
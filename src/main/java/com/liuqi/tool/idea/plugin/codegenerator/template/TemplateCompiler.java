@@ -0,0 +1,163 @@
+package com.liuqi.tool.idea.plugin.codegenerator.template;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模板编译器
+ * 将模板内容一次性解析成文本、占位符（形如$T$、$PATH$）、循环块（形如$$$loopFields...$$$）及片段引用（形如$@header$）组成的片段列表；
+ * 编译结果按模板内容进行缓存，只要yaml中的模板内容未变化，就不需要重复编译
+ */
+public class TemplateCompiler {
+    /**
+     * 循环块的开始及结束标记
+     */
+    private static final String LOOP_MARK = "$$$";
+
+    /**
+     * 循环块名称前缀
+     */
+    private static final String LOOP_PREFIX = "loop";
+
+    /**
+     * 字段循环块名称，需要精确匹配，循环体可以直接以字母开头
+     */
+    private static final String LOOP_FIELDS = "loopFields";
+
+    /**
+     * 片段引用的名称前缀，如$@header$
+     */
+    private static final char INCLUDE_PREFIX = '@';
+
+    /**
+     * 缓存的最大模板数
+     */
+    private static final int MAX_CACHE_SIZE = 128;
+
+    private static final Map<String, CompiledTemplate> CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(32, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CompiledTemplate> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            });
+
+    private TemplateCompiler() {
+    }
+
+    /**
+     * 编译模板，相同内容的模板直接返回缓存的编译结果
+     *
+     * @param template 模板内容
+     * @return 编译后的模板
+     */
+    public static CompiledTemplate compile(String template) {
+        if (null == template) {
+            template = "";
+        }
+
+        CompiledTemplate compiled = CACHE.get(template);
+        if (null == compiled) {
+            compiled = parse(template);
+            CACHE.put(template, compiled);
+        }
+
+        return compiled;
+    }
+
+    /**
+     * 解析模板
+     * 占位符格式为$NAME$，NAME只能包含字母、数字及下划线；
+     * 循环块格式为$$$loopXxx循环体$$$，模板中可以包含多个循环块，循环体同样作为模板进行编译；
+     * 片段引用格式为$@name$，渲染时引用的片段使用当前上下文渲染；
+     * 不满足格式的$按普通文本处理；解析结果不会被缓存
+     */
+    public static CompiledTemplate parse(String template) {
+        List<CompiledTemplate.Segment> segments = new ArrayList<>();
+        int length = template.length();
+        int literalStart = 0;
+        int i = 0;
+        while (i < length) {
+            if (template.charAt(i) != '$') {
+                i++;
+                continue;
+            }
+
+            if (template.startsWith(LOOP_MARK + LOOP_PREFIX, i)) {
+                int loopEnd = parseLoop(template, i, segments, literalStart);
+                if (-1 != loopEnd) {
+                    i = loopEnd;
+                    literalStart = i;
+                    continue;
+                }
+            }
+
+            boolean include = i + 1 < length && template.charAt(i + 1) == INCLUDE_PREFIX;
+            int nameStart = include ? i + 2 : i + 1;
+            int end = nameStart;
+            while (end < length && isNameChar(template.charAt(end))) {
+                end++;
+            }
+
+            if (end == nameStart || end >= length || template.charAt(end) != '$') {
+                // 不是占位符，作为普通文本处理
+                i++;
+                continue;
+            }
+
+            if (literalStart < i) {
+                segments.add(new CompiledTemplate.Literal(template.substring(literalStart, i)));
+            }
+            String name = template.substring(nameStart, end);
+            String raw = template.substring(i, end + 1);
+            segments.add(include ? new CompiledTemplate.Include(name, raw) : new CompiledTemplate.Placeholder(name, raw));
+            i = end + 1;
+            literalStart = i;
+        }
+
+        if (literalStart < length) {
+            segments.add(new CompiledTemplate.Literal(template.substring(literalStart)));
+        }
+
+        return new CompiledTemplate(template, List.copyOf(segments));
+    }
+
+    /**
+     * 解析循环块
+     *
+     * @return 循环块结束后的位置，不是完整的循环块时返回-1
+     */
+    private static int parseLoop(String template, int start, List<CompiledTemplate.Segment> segments, int literalStart) {
+        int nameStart = start + LOOP_MARK.length();
+        int bodyStart;
+        if (template.startsWith(LOOP_FIELDS, nameStart)) {
+            bodyStart = nameStart + LOOP_FIELDS.length();
+        } else {
+            bodyStart = nameStart + LOOP_PREFIX.length();
+            while (bodyStart < template.length() && Character.isLetterOrDigit(template.charAt(bodyStart))) {
+                bodyStart++;
+            }
+        }
+
+        int bodyEnd = template.indexOf(LOOP_MARK, bodyStart);
+        if (-1 == bodyEnd) {
+            return -1;
+        }
+
+        if (literalStart < start) {
+            segments.add(new CompiledTemplate.Literal(template.substring(literalStart, start)));
+        }
+
+        int end = bodyEnd + LOOP_MARK.length();
+        segments.add(new CompiledTemplate.LoopBlock(template.substring(nameStart, bodyStart),
+                parse(template.substring(bodyStart, bodyEnd)), template.substring(start, end)));
+        return end;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
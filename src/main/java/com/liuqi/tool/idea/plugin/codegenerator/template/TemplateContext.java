@@ -0,0 +1,139 @@
+package com.liuqi.tool.idea.plugin.codegenerator.template;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 模板渲染上下文
+ * 包含占位符取值、循环块的数据以及片段的查找方式；循环块中每一项及引用的片段使用子上下文渲染，
+ * 子上下文中找不到的占位符从父上下文中查找
+ */
+public class TemplateContext {
+    /**
+     * 片段最大引用层级，超过时不再展开，避免片段之间循环引用
+     */
+    private static final int MAX_INCLUDE_DEPTH = 16;
+
+    private final TemplateContext parent;
+
+    private final Map<String, String> variables;
+
+    private final Map<String, List<Map<String, String>>> loops = new HashMap<>();
+
+    /**
+     * 未单独设置数据的循环块使用的数据
+     */
+    private List<Map<String, String>> defaultLoop;
+
+    /**
+     * 片段引用层级
+     */
+    private final int depth;
+
+    /**
+     * 片段名称 -> 编译后的片段，找不到时返回null
+     */
+    private Function<String, CompiledTemplate> fragments;
+
+    public TemplateContext(Map<String, String> variables) {
+        this(null, variables, 0);
+    }
+
+    private TemplateContext(TemplateContext parent, Map<String, String> variables, int depth) {
+        this.parent = parent;
+        this.variables = null == variables ? Collections.emptyMap() : variables;
+        this.depth = depth;
+    }
+
+    /**
+     * 设置片段的查找方式，未设置时片段引用原样输出
+     *
+     * @param fragments 根据片段名称获取编译后的片段，找不到时返回null
+     * @return 当前上下文
+     */
+    public TemplateContext fragments(Function<String, CompiledTemplate> fragments) {
+        this.fragments = fragments;
+        return this;
+    }
+
+    /**
+     * 设置循环块数据
+     *
+     * @param name  循环块名称，如loopFields
+     * @param items 每一项的占位符取值
+     * @return 当前上下文
+     */
+    public TemplateContext loop(String name, List<Map<String, String>> items) {
+        loops.put(name, items);
+        return this;
+    }
+
+    /**
+     * 设置未单独设置数据的循环块使用的数据，模板中任意名称的循环块都使用这份数据渲染
+     *
+     * @param items 每一项的占位符取值
+     * @return 当前上下文
+     */
+    public TemplateContext defaultLoop(List<Map<String, String>> items) {
+        this.defaultLoop = items;
+        return this;
+    }
+
+    /**
+     * 获取占位符取值，不存在时返回null
+     */
+    public String getVariable(String name) {
+        String value = variables.get(name);
+        if (null == value && null != parent) {
+            return parent.getVariable(name);
+        }
+
+        return value;
+    }
+
+    /**
+     * 获取循环块数据，没有单独设置时使用默认数据，都不存在时返回null
+     */
+    public List<Map<String, String>> getLoop(String name) {
+        List<Map<String, String>> items = loops.get(name);
+        if (null != items) {
+            return items;
+        }
+
+        return null == parent ? defaultLoop : parent.getLoop(name);
+    }
+
+    /**
+     * 获取编译后的片段，不存在或者引用层级过深时返回null
+     */
+    public CompiledTemplate getFragment(String name) {
+        if (depth >= MAX_INCLUDE_DEPTH) {
+            return null;
+        }
+
+        for (TemplateContext context = this; null != context; context = context.parent) {
+            if (null != context.fragments) {
+                return context.fragments.apply(name);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 创建循环项的子上下文
+     */
+    TemplateContext child(Map<String, String> itemVariables) {
+        return new TemplateContext(this, itemVariables, depth);
+    }
+
+    /**
+     * 创建渲染引用片段的子上下文
+     */
+    TemplateContext include() {
+        return new TemplateContext(this, Collections.emptyMap(), depth + 1);
+    }
+}
@@ -0,0 +1,174 @@
+package com.liuqi.tool.idea.plugin.codegenerator.ui;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.fileEditor.FileEditorManager;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.psi.JavaPsiFacade;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.table.JBTable;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.EntityGenerator;
+import com.liuqi.tool.idea.plugin.codegenerator.generator.GenerationTask;
+import com.liuqi.tool.idea.plugin.codegenerator.index.EntityOutputChecker;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.table.DefaultTableModel;
+import java.awt.event.MouseEvent;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 实体生成状态面板
+ * 列出生成类缺少或者已过期的实体，数据取自实体类索引；可以一次性为所有列出的实体生成代码，双击打开实体类
+ */
+public class EntityOutputPanel extends SimpleToolWindowPanel {
+    private static final String TITLE = "Stone Code Generator";
+
+    private final Project project;
+
+    private final Disposable parent;
+
+    private final DefaultTableModel model = new DefaultTableModel(new Object[]{"实体类", "缺少", "已过期"}, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    private final JBTable table = new JBTable(model);
+
+    /**
+     * 当前列出的实体，顺序与表格行一致
+     */
+    private List<EntityOutputChecker.Status> statuses = List.of();
+
+    public EntityOutputPanel(Project project, Disposable parent) {
+        super(true, true);
+        this.project = project;
+        this.parent = parent;
+
+        new DoubleClickListener() {
+            @Override
+            protected boolean onDoubleClick(@NotNull MouseEvent event) {
+                int row = table.getSelectedRow();
+                if (-1 == row) {
+                    return false;
+                }
+
+                FileEditorManager.getInstance(project).openFile(statuses.get(table.convertRowIndexToModel(row)).file(), true);
+                return true;
+            }
+        }.installOn(table);
+
+        DefaultActionGroup group = new DefaultActionGroup(
+                DumbAwareAction.create("刷新", AllIcons.Actions.Refresh, event -> this.refresh()),
+                DumbAwareAction.create("全部生成", AllIcons.Actions.Execute, event -> this.generateAll()));
+        ActionToolbar toolbar = ActionManager.getInstance().createActionToolbar("StoneCoderEntities", group, true);
+        toolbar.setTargetComponent(this);
+        this.setToolbar(toolbar.getComponent());
+        this.setContent(ScrollPaneFactory.createScrollPane(table));
+
+        this.refresh();
+    }
+
+    /**
+     * 在后台重新加载配置并查询索引，索引更新期间等待完成后再查询；配置文件同样通过索引查找
+     */
+    private void refresh() {
+        table.getEmptyText().setText("正在检查...");
+        ReadAction.nonBlocking(() -> {
+                    GeneratorConfig config = GeneratorConfig.load(project);
+                    if (StringUtils.isBlank(config.getTableAnnotation()) || CollectionUtils.isEmpty(config.getClasses())) {
+                        return null;
+                    }
+                    return new EntityOutputChecker(project, config).check();
+                })
+                .inSmartMode(project)
+                .expireWith(parent)
+                .finishOnUiThread(ModalityState.any(), this::setStatuses)
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    /**
+     * 显示检查结果
+     *
+     * @param statuses 检查结果，未配置tableAnnotation或者classes清单时为null
+     */
+    private void setStatuses(List<EntityOutputChecker.Status> statuses) {
+        this.statuses = null == statuses ? List.of() : statuses;
+        model.setRowCount(0);
+        for (EntityOutputChecker.Status status : this.statuses) {
+            model.addRow(new Object[]{status.className(), String.join(", ", status.missing()),
+                    String.join(", ", status.stale())});
+        }
+        table.getEmptyText().setText(null == statuses
+                ? "config.yaml中未配置tableAnnotation或者classes清单"
+                : "所有实体的生成类都已是最新");
+    }
+
+    /**
+     * 为所有列出的实体生成代码，生成结束后重新检查
+     */
+    private void generateAll() {
+        if (statuses.isEmpty()) {
+            Messages.showInfoMessage(project, "没有需要生成代码的实体类", TITLE);
+            return;
+        }
+
+        // 只在生成前查找实体类；索引中的注解全名由导入推算，生成前再按解析结果确认
+        List<String> classNames = statuses.stream().map(EntityOutputChecker.Status::className).toList();
+        ReadAction.nonBlocking(() -> {
+                    GeneratorConfig config = GeneratorConfig.load(project);
+                    JavaPsiFacade facade = JavaPsiFacade.getInstance(project);
+                    GlobalSearchScope scope = GlobalSearchScope.projectScope(project);
+                    List<PsiClass> entities = classNames.stream()
+                            .map(className -> facade.findClass(className, scope))
+                            .filter(Objects::nonNull)
+                            .filter(aClass -> EntityGenerator.isEntity(config, aClass))
+                            .toList();
+                    return new Entities(config, entities);
+                })
+                .inSmartMode(project)
+                .expireWith(parent)
+                .finishOnUiThread(ModalityState.defaultModalityState(), this::generate)
+                .submit(AppExecutorUtil.getAppExecutorService());
+    }
+
+    private void generate(Entities entities) {
+        if (entities.classes().isEmpty()) {
+            Messages.showInfoMessage(project, "没有需要生成代码的实体类", TITLE);
+            return;
+        }
+
+        ProgressManager.getInstance().run(new GenerationTask(project, entities.config(), entities.classes(),
+                msg -> Messages.showWarningDialog(project, msg, TITLE)) {
+            @Override
+            public void onFinished() {
+                super.onFinished();
+                EntityOutputPanel.this.refresh();
+            }
+        });
+    }
+
+    /**
+     * 在同一个读操作中加载的配置及实体类
+     */
+    private record Entities(GeneratorConfig config, List<PsiClass> classes) {
+    }
+}
@@ -0,0 +1,21 @@
+package com.liuqi.tool.idea.plugin.codegenerator.ui;
+
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.wm.ToolWindow;
+import com.intellij.openapi.wm.ToolWindowFactory;
+import com.intellij.ui.content.Content;
+import com.intellij.ui.content.ContentFactory;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 实体生成状态工具窗口
+ */
+public class EntityToolWindowFactory implements ToolWindowFactory, DumbAware {
+    @Override
+    public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
+        EntityOutputPanel panel = new EntityOutputPanel(project, toolWindow.getDisposable());
+        Content content = ContentFactory.getInstance().createContent(panel, "", false);
+        toolWindow.getContentManager().addContent(content);
+    }
+}
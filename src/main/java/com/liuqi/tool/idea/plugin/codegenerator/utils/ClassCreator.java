@@ -5,13 +5,18 @@ import com.intellij.openapi.command.WriteCommandAction;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.*;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.EntityModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -36,6 +41,17 @@ public class ClassCreator {
         return new ClassCreator(module);
     }
 
+    /**
+     * 设置所属生成过程的耗时统计，查找类及格式化时记录
+     *
+     * @param metrics 耗时统计
+     * @return 创建器
+     */
+    public ClassCreator metrics(GenerationMetrics metrics) {
+        psiUtils.metrics(metrics);
+        return this;
+    }
+
     /**
      * 根据名称及内容创建Java类
      *
@@ -116,6 +132,23 @@ public class ClassCreator {
         return this;
     }
 
+    /**
+     * 格式化当前类
+     *
+     * @return 创建器
+     */
+    public ClassCreator format() {
+        psiUtils.format(javaFile);
+        return this;
+    }
+
+    /**
+     * 获取当前创建的Java文件，未添加到任何目录时为非物理文件
+     */
+    public PsiJavaFile getJavaFile() {
+        return javaFile;
+    }
+
     /**
      * 将当前类放到指定目录
      *
@@ -154,82 +187,78 @@ public class ClassCreator {
 
     /**
      * 从目标类中复制属性到当前类
+     * 属性信息取自缓存的实体模型；所有属性先拼接成文本，再一次性解析并添加到当前类中；格式化在addTo或者format中对整个文件统一进行
      *
      * @param srcClass 需要复制的属性所在的类
      * @return 创建器
      */
     public ClassCreator copyFields(PsiClass srcClass, List<String> disposedFields) {
         PsiClass aClass = javaFile.getClasses()[0];
-        PsiElementFactory elementFactory = PsiElementFactory.SERVICE.getInstance(project);
-        for (PsiField field : srcClass.getFields()) {
+        PsiElementFactory elementFactory = PsiElementFactory.getInstance(project);
+
+        // 所有属性的声明文本
+        StringBuilder fieldsBuilder = new StringBuilder();
+
+        // 需要导入的类，相同的类只导入一次
+        Set<String> imports = new LinkedHashSet<>();
+        Set<String> typeNames = new LinkedHashSet<>();
+        EntityModel model = EntityModelExtractor.extract(srcClass, GeneratorConfig.load(project));
+        for (FieldModel field : model.getDeclaredFields()) {
             String name = field.getName();
-            PsiType type = field.getType();
             if (disposedFields.contains(name)) {
                 continue;
             }
 
-            psiUtils.findClass(type.getCanonicalText()).ifPresent(typeClass -> psiUtils.importClass(aClass, typeClass));
+            typeNames.add(field.getQualifiedType());
+            String typeName = field.getType();
 
-            String typeName = type.getCanonicalText();
-            if (typeName.contains(".")) {
-                typeName = typeName.substring(typeName.lastIndexOf(".") + 1);
+            // 添加校验注解
+            StringBuilder annotationStringBuilder = new StringBuilder();
+            if (typeName.equals("String") && null != field.getLength()) {
+                // 只有字符串的时候才添加长度限制
+                annotationStringBuilder.append("@Length(max = ").append(field.getLength()).append(") ");
+                imports.add("org.hibernate.validator.constraints.Length");
             }
 
-            // 添加校验注解
-            PsiAnnotation psiAnnotation = field.getAnnotation("javax.persistence.Column");
-            StringBuilder annotationStringBuilder = new StringBuilder("");
-            if (null != psiAnnotation) {
-                PsiAnnotationMemberValue memberValue = psiAnnotation.findAttributeValue("columnDefinition");
-                if (null != memberValue) {
-                    String str = memberValue.getText();
-
-                    if (typeName.equals("String")) {
-                        // 只有字符串的时候才添加长度限制
-                        if (str.contains("varchar") || str.contains("char")) {
-                            str = str.replace("varchar(", "").replace("char(", "");
-                            int idx = str.indexOf(")");
-                            if (-1 != idx) {
-                                String lengthStr = str.substring(0, idx).replaceAll("\"", "");
-                                if (StringUtils.isNotBlank(lengthStr)) {
-                                    int length = Integer.parseInt(lengthStr);
-                                    annotationStringBuilder.append("@Length(max = ").append(length).append(") ");
-                                    importClass("org.hibernate.validator.constraints.Length");
-                                }
-                            }
-                        }
-                    }
-
-                    // 如果是not null，需要加上NotNull校验 javax.validation.constraints
-                    if (str.contains("not null") && !typeName.toLowerCase().contains("type")
-                            && !typeName.toLowerCase().equals("localdatetime")
-                            && !typeName.toLowerCase().equals("localdate")) {
-                        if (typeName.equals("String")) {
-                            annotationStringBuilder.append("@NotBlank ");
-                            importClass("org.hibernate.validator.constraints.NotBlank");
-                        } else {
-                            annotationStringBuilder.append("@NotNull ");
-                            importClass("javax.validation.constraints.NotNull");
-                        }
-                    }
+            // 如果是not null，需要加上NotNull校验 javax.validation.constraints
+            if (field.getColumnDefinition().contains("not null") && !typeName.toLowerCase().contains("type")
+                    && !typeName.equalsIgnoreCase("localdatetime")
+                    && !typeName.equalsIgnoreCase("localdate")) {
+                if (typeName.equals("String")) {
+                    annotationStringBuilder.append("@NotBlank ");
+                    imports.add("org.hibernate.validator.constraints.NotBlank");
+                } else {
+                    annotationStringBuilder.append("@NotNull ");
+                    imports.add("javax.validation.constraints.NotNull");
                 }
             }
 
             if (typeName.equalsIgnoreCase("localdate")) {
                 annotationStringBuilder.append("@JsonFormat(pattern = \"yyyy-MM-dd\") ");
-                importClass("com.fasterxml.jackson.annotation.JsonFormat");
+                imports.add("com.fasterxml.jackson.annotation.JsonFormat");
             } else if (typeName.equalsIgnoreCase("localdatetime")) {
                 annotationStringBuilder.append("@JsonFormat(pattern = \"yyyy-MM-dd HH:mm:ss\") ");
-                importClass("com.fasterxml.jackson.annotation.JsonFormat");
+                imports.add("com.fasterxml.jackson.annotation.JsonFormat");
             }
 
-            PsiField cField = elementFactory.createFieldFromText(annotationStringBuilder.toString() + "private " + typeName + " " + name + ";\n", null);
-            aClass.add(cField);
+            fieldsBuilder.append(annotationStringBuilder).append("private ").append(typeName).append(" ")
+                    .append(name).append(";\n");
+        }
 
-            // 针对每一个属性生成三个方法（使用Data，不生成方法）
-//            psiUtils.addGetterAndSetterMethods(aClass);
-            psiUtils.format(aClass);
+        if (fieldsBuilder.isEmpty()) {
+            return this;
         }
 
+        // 一次性解析所有属性并添加到当前类中
+        PsiField[] fields = elementFactory.createClassFromText(fieldsBuilder.toString(), null).getFields();
+        aClass.addRange(fields[0], fields[fields.length - 1]);
+
+        typeNames.forEach(typeName -> psiUtils.findClass(typeName).ifPresent(typeClass -> psiUtils.importClass(aClass, typeClass)));
+        imports.forEach(this::importClass);
+
+        // 针对每一个属性生成三个方法（使用Data，不生成方法）
+//        psiUtils.addGetterAndSetterMethods(aClass);
+
         return this;
     }
 
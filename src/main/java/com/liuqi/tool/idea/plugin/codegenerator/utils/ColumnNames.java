@@ -0,0 +1,86 @@
+package com.liuqi.tool.idea.plugin.codegenerator.utils;
+
+import org.apache.commons.lang3.StringUtils;
+
+import javax.lang.model.SourceVersion;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 表名、列名与类名、属性名之间的转换
+ * 根据建表语句生成实体时由列名得到属性名，根据实体生成代码时再由属性名得到列名；
+ * 两个方向的转换并不互逆（如line2转换成line_2），无法还原的列名需要通过列名注解记录
+ */
+public final class ColumnNames {
+    private ColumnNames() {
+    }
+
+    /**
+     * 根据表名获取实体类名
+     */
+    public static String toClassName(String table) {
+        return toIdentifier(MyStringUtils.toCamelCase(table), "Table") + "Entity";
+    }
+
+    /**
+     * 根据列名获取属性名，Java关键字加上Value后缀，重复的属性名加上序号
+     *
+     * @param columns 表的所有列名
+     * @return 属性名，顺序与列名一致
+     */
+    public static List<String> toFieldNames(List<String> columns) {
+        Set<String> used = new HashSet<>();
+        List<String> result = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            String name = toIdentifier(MyStringUtils.toLowerCamelCase(column), "column");
+            if (SourceVersion.isKeyword(name)) {
+                name = name + "Value";
+            }
+
+            String unique = name;
+            for (int i = 2; !used.add(unique); i++) {
+                unique = name + i;
+            }
+            result.add(unique);
+        }
+
+        return result;
+    }
+
+    /**
+     * 获取属性对应的列名
+     *
+     * @param field  属性名
+     * @param column 列名注解中的列名，没有注解时为null
+     */
+    public static String toColumn(String field, String column) {
+        return StringUtils.isBlank(column) ? MyStringUtils.toUnderLineStr(field) : column;
+    }
+
+    /**
+     * 属性名无法还原成列名时需要标注列名注解
+     */
+    public static boolean needsColumnAnnotation(String field, String column) {
+        return !toColumn(field, null).equals(column);
+    }
+
+    /**
+     * 移除不能用于Java标识符的字符，不能作为开头时加上前缀
+     */
+    private static String toIdentifier(String name, String prefix) {
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isJavaIdentifierPart(c) && !Character.isIdentifierIgnorable(c)) {
+                sb.append(c);
+            }
+        }
+
+        if (sb.isEmpty()) {
+            return prefix;
+        }
+        return Character.isJavaIdentifierStart(sb.charAt(0)) ? sb.toString() : prefix + sb;
+    }
+}
@@ -0,0 +1,158 @@
+package com.liuqi.tool.idea.plugin.codegenerator.utils;
+
+import com.intellij.openapi.util.Key;
+import com.intellij.psi.*;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.EntityModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import com.liuqi.tool.idea.plugin.codegenerator.bean.GeneratorConfig;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 实体模型提取
+ * 一次遍历实体类的所有字段得到实体模型；结果缓存在实体类上，PSI发生变化时失效。
+ * 模型中的注释、表名及列名依赖配置中的注解，缓存按注解配置区分
+ */
+public class EntityModelExtractor {
+    private static final Key<CachedValue<Map<String, EntityModel>>> MODEL_CACHE_KEY = Key.create("codeGenerator.entityModel");
+
+    private static final Pattern LENGTH_PATTERN = Pattern.compile("char\\s*\\(\\s*(\\d+)\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private EntityModelExtractor() {
+    }
+
+    /**
+     * 获取实体模型，需要在读操作中调用
+     *
+     * @param aClass 实体类
+     * @param config 生成配置
+     * @return 实体模型
+     */
+    public static EntityModel extract(PsiClass aClass, GeneratorConfig config) {
+        Map<String, EntityModel> models = CachedValuesManager.getCachedValue(aClass, MODEL_CACHE_KEY,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(), PsiModificationTracker.MODIFICATION_COUNT));
+        String key = config.getCommentAnnotation() + "|" + config.getTableAnnotation() + "|" + config.getColumnAnnotation();
+        return models.computeIfAbsent(key, k -> doExtract(aClass, config));
+    }
+
+    private static EntityModel doExtract(PsiClass aClass, GeneratorConfig config) {
+        String className = aClass.getName();
+        String name = className.replace("Entity", "");
+
+        // 获取对应的实体中文名称
+        String comment = getAnnotationValue(aClass, config.getCommentAnnotation(), "value").orElse("");
+
+        // 表名从Table或者TableName中获取
+        String tableName = getAnnotationValue(aClass, config.getTableAnnotation(), "value")
+                .orElseGet(() -> MyStringUtils.toUnderLineStr(name));
+
+        List<FieldModel> fields = new ArrayList<>();
+        for (PsiField field : aClass.getAllFields()) {
+            String qualifiedType = field.getType().getCanonicalText();
+            int idx = qualifiedType.lastIndexOf('.');
+            PsiAnnotation column = findColumnAnnotation(field);
+            String columnDefinition = getAnnotationValue(column, "columnDefinition").orElse("");
+            fields.add(FieldModel.builder()
+                    .setName(field.getName())
+                    .setType(-1 == idx ? qualifiedType : qualifiedType.substring(idx + 1))
+                    .setQualifiedType(qualifiedType)
+                    .setColumn(ColumnNames.toColumn(field.getName(), getColumnName(field, column, config)))
+                    .setColumnDefinition(columnDefinition)
+                    .setLength(getLength(column, columnDefinition))
+                    .setComment(getAnnotationValue(field, config.getCommentAnnotation(), "value").orElse(""))
+                    .setNullable(isNullable(field, column, columnDefinition))
+                    .setDeclared(aClass.equals(field.getContainingClass()))
+                    .build());
+        }
+
+        return new EntityModel(className, name, comment, tableName, fields);
+    }
+
+    /**
+     * 注解中配置的列名，优先取列名注解的value，其次取Column注解的name，都未配置时返回null
+     */
+    private static String getColumnName(PsiField field, PsiAnnotation column, GeneratorConfig config) {
+        return getAnnotationValue(field, config.getColumnAnnotation(), "value")
+                .filter(StringUtils::isNotBlank)
+                .or(() -> getAnnotationValue(column, "name").filter(StringUtils::isNotBlank))
+                .orElse(null);
+    }
+
+    private static PsiAnnotation findColumnAnnotation(PsiField field) {
+        for (PsiAnnotation annotation : field.getAnnotations()) {
+            String name = annotation.getQualifiedName();
+            if (null != name && name.endsWith(".Column")) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 字段长度，优先取columnDefinition中定义的长度
+     */
+    private static Integer getLength(PsiAnnotation column, String columnDefinition) {
+        Matcher matcher = LENGTH_PATTERN.matcher(columnDefinition);
+        if (matcher.find()) {
+            return Integer.parseInt(matcher.group(1));
+        }
+
+        if (null != column && null != column.findDeclaredAttributeValue("length")) {
+            String length = getAnnotationValue(column, "length").orElse("");
+            if (StringUtils.isNumeric(length)) {
+                return Integer.parseInt(length);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 判断字段是否允许为空
+     */
+    private static boolean isNullable(PsiField field, PsiAnnotation column, String columnDefinition) {
+        if (field.getType() instanceof PsiPrimitiveType) {
+            return false;
+        }
+
+        for (PsiAnnotation annotation : field.getAnnotations()) {
+            String name = annotation.getQualifiedName();
+            if (null != name && (name.endsWith(".NotNull") || name.endsWith(".NotBlank") || name.endsWith(".NotEmpty"))) {
+                return false;
+            }
+        }
+
+        return !columnDefinition.toLowerCase(Locale.ROOT).contains("not null")
+                && !"false".equals(getAnnotationValue(column, "nullable").orElse("true"));
+    }
+
+    private static Optional<String> getAnnotationValue(PsiModifierListOwner owner, String annotation, String field) {
+        if (StringUtils.isBlank(annotation)) {
+            return Optional.empty();
+        }
+
+        return getAnnotationValue(owner.getAnnotation(annotation), field);
+    }
+
+    /**
+     * 获取注解属性值，去掉字符串两侧的引号
+     */
+    private static Optional<String> getAnnotationValue(PsiAnnotation annotation, String field) {
+        return Optional.ofNullable(annotation)
+                .map(a -> a.findAttributeValue(field))
+                .map(value -> value.getText().replaceAll("\"", ""));
+    }
+}
@@ -0,0 +1,247 @@
+package com.liuqi.tool.idea.plugin.codegenerator.utils;
+
+import com.intellij.openapi.project.Project;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 代码生成耗时统计
+ * 记录一次生成过程中各个阶段的累计耗时及计数，每个阶段同时作为JFR事件输出；
+ * 每次生成单独一个实例，由生成任务创建后显式传递给各个环节，同时进行的多次生成互不影响；
+ * 不在生成过程中的调用方使用none()返回的不做任何记录的实例
+ */
+public final class GenerationMetrics {
+    private static final Logger log = LoggerFactory.getLogger(GenerationMetrics.class);
+
+    private static final GenerationMetrics NOOP = new GenerationMetrics(null);
+
+    /**
+     * 生成阶段，统计的耗时包含嵌套在其中的其它阶段，如写入包含构建PSI、获取目录及Liquibase，构建PSI包含查找类及格式化
+     */
+    public enum Phase {
+        CONFIG("加载配置"),
+        FIND_CLASS("查找类"),
+        RENDER("渲染"),
+        BUILD("构建PSI"),
+        REFORMAT("格式化"),
+        DIRECTORY("获取目录"),
+        WRITE("写入"),
+        LIQUIBASE("Liquibase");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * 计数项
+     */
+    public enum Counter {
+        ENTITIES("实体"),
+        FILES_RENDERED("渲染文件"),
+        FILES_WRITTEN("写入文件"),
+        FILES_SKIPPED("跳过文件"),
+        CLASSES_RESOLVED("解析类"),
+        REFORMAT_CALLS("格式化次数"),
+        CHANGE_SETS("changeSet");
+
+        private final String label;
+
+        Counter(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Project project;
+
+    private final Map<Phase, LongAdder> durations = new EnumMap<>(Phase.class);
+
+    private final Map<Phase, LongAdder> calls = new EnumMap<>(Phase.class);
+
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+
+    private final long start = System.nanoTime();
+
+    private GenerationMetrics(Project project) {
+        this.project = project;
+        for (Phase phase : Phase.values()) {
+            durations.put(phase, new LongAdder());
+            calls.put(phase, new LongAdder());
+        }
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+    }
+
+    /**
+     * 开始一次生成的统计
+     */
+    public static GenerationMetrics begin(Project project) {
+        return new GenerationMetrics(project);
+    }
+
+    /**
+     * 获取不做任何记录的实例
+     */
+    public static GenerationMetrics none() {
+        return NOOP;
+    }
+
+    /**
+     * 开始统计阶段耗时，需要在try-with-resources中使用
+     */
+    public Timer time(Phase phase) {
+        return new Timer(phase);
+    }
+
+    /**
+     * 计数加一
+     */
+    public void increment(Counter counter) {
+        this.add(counter, 1);
+    }
+
+    /**
+     * 计数增加指定值
+     */
+    public void add(Counter counter, long value) {
+        if (this != NOOP) {
+            counters.get(counter).add(value);
+        }
+    }
+
+    public long get(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * 结束统计，输出JFR事件及日志
+     *
+     * @return 统计摘要
+     */
+    public String end() {
+        if (this == NOOP) {
+            return "";
+        }
+
+        long total = System.nanoTime() - start;
+
+        RunEvent event = new RunEvent();
+        if (event.shouldCommit()) {
+            event.project = project.getName();
+            event.totalMillis = toMillis(total);
+            event.entities = this.get(Counter.ENTITIES);
+            event.filesWritten = this.get(Counter.FILES_WRITTEN);
+            event.filesSkipped = this.get(Counter.FILES_SKIPPED);
+            event.classesResolved = this.get(Counter.CLASSES_RESOLVED);
+            event.reformatCalls = this.get(Counter.REFORMAT_CALLS);
+            event.commit();
+        }
+
+        String summary = this.toSummary(total);
+        log.info("代码生成完成\n{}", summary);
+        return summary;
+    }
+
+    private String toSummary(long total) {
+        StringBuilder sb = new StringBuilder("总耗时：").append(toMillis(total)).append("ms");
+        for (Phase phase : Phase.values()) {
+            long count = calls.get(phase).sum();
+            if (0 != count) {
+                sb.append("\n").append(phase.label).append("：")
+                        .append(toMillis(durations.get(phase).sum())).append("ms / ").append(count).append("次");
+            }
+        }
+        for (Counter counter : Counter.values()) {
+            long count = this.get(counter);
+            if (0 != count) {
+                sb.append("\n").append(counter.label).append("：").append(count);
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static long toMillis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    /**
+     * 阶段计时器
+     */
+    public final class Timer implements AutoCloseable {
+        private final Phase phase;
+
+        private final PhaseEvent event;
+
+        private final long begin;
+
+        private Timer(Phase phase) {
+            this.phase = phase;
+            this.event = new PhaseEvent();
+            this.event.begin();
+            this.begin = System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            if (GenerationMetrics.this != NOOP) {
+                durations.get(phase).add(System.nanoTime() - begin);
+                calls.get(phase).increment();
+            }
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase.name();
+                event.commit();
+            }
+        }
+    }
+
+    @Name("com.liuqi.codegenerator.Phase")
+    @Label("Code Generator Phase")
+    @Category("Stone Code Generator")
+    @Description("代码生成中单个阶段的耗时")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("com.liuqi.codegenerator.Run")
+    @Label("Code Generator Run")
+    @Category("Stone Code Generator")
+    @Description("一次代码生成的汇总信息")
+    static final class RunEvent extends Event {
+        @Label("Project")
+        String project;
+
+        @Label("Total Millis")
+        long totalMillis;
+
+        @Label("Entities")
+        long entities;
+
+        @Label("Files Written")
+        long filesWritten;
+
+        @Label("Files Skipped")
+        long filesSkipped;
+
+        @Label("Classes Resolved")
+        long classesResolved;
+
+        @Label("Reformat Calls")
+        long reformatCalls;
+    }
+}
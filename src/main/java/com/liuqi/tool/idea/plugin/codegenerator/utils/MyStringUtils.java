@@ -1,33 +1,248 @@
 package com.liuqi.tool.idea.plugin.codegenerator.utils;
 
-import org.apache.commons.lang3.StringUtils;
-
-import java.util.Arrays;
-import java.util.Objects;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * 
+ *
  *
  * @author  LiuQi 2019/7/16-9:21
  * @version V1.0
  **/
 public class MyStringUtils {
+    /**
+     * 每种转换缓存的最大名称数，超过时清空重新缓存
+     */
+    private static final int MAX_CACHE_SIZE = 4096;
+
     /**
      * 首字母改成小写
      */
     public static String firstLetterToLower(String str) {
-        if (StringUtils.isBlank(str)) {
+        if (null == str || str.isBlank()) {
             return "";
         }
 
-        return str.replaceFirst(str.substring(0, 1), str.substring(0, 1).toLowerCase());
+        char first = str.charAt(0);
+        char lower = Character.toLowerCase(first);
+        return first == lower ? str : lower + str.substring(1);
     }
 
     /**
-     * 驼峰转下划线
+     * 驼峰转下划线，如userName转换成user_name
      */
     public static String toUnderLineStr(String str) {
-        return firstLetterToLower(Arrays.stream(Objects.requireNonNull(StringUtils.splitByCharacterTypeCamelCase(str)))
-                .reduce((s1, s2) -> s1.toLowerCase().concat("_").concat(s2.toLowerCase())).orElse(""));
+        return toSnakeCase(str);
+    }
+
+    /**
+     * 转换成下划线格式，如HTTPUrl2Name转换成http_url_2_name
+     */
+    public static String toSnakeCase(String str) {
+        return Style.SNAKE.convert(str);
+    }
+
+    /**
+     * 转换成中划线格式，如HTTPUrl2Name转换成http-url-2-name
+     */
+    public static String toKebabCase(String str) {
+        return Style.KEBAB.convert(str);
+    }
+
+    /**
+     * 转换成首字母大写的驼峰格式，如http_url2name转换成HttpUrl2Name
+     */
+    public static String toCamelCase(String str) {
+        return Style.UPPER_CAMEL.convert(str);
+    }
+
+    /**
+     * 转换成首字母小写的驼峰格式，如http_url2name转换成httpUrl2Name
+     */
+    public static String toLowerCamelCase(String str) {
+        return Style.LOWER_CAMEL.convert(str);
+    }
+
+    /**
+     * 各个格式中缓存的最大名称数
+     */
+    static int getCacheSize() {
+        int size = 0;
+        for (Style style : Style.values()) {
+            size = Math.max(size, style.cacheSize());
+        }
+
+        return size;
+    }
+
+    /**
+     * 名称格式
+     * 所有格式使用相同的单词拆分规则：小写字母后的大写字母开始新单词；连续大写字母作为缩写，最后一个大写字母后跟小写字母时开始新单词，
+     * 如HTTPUrl拆分成HTTP、Url；连续的数字单独作为一个单词，如line2name拆分成line、2、name。
+     * 下划线及中划线格式用于生成表名、列名及路径，与StringUtils.splitByCharacterTypeCamelCase的拆分结果保持一致，避免已有实体生成的列名发生变化；
+     * 驼峰格式另外将下划线、中划线、空格及点号作为分隔符，如line2name及line_2_name都转换成line2Name
+     */
+    private enum Style {
+        SNAKE('_', false, false) {
+            @Override
+            String doConvert(String str) {
+                return splitByCharacterType(str);
+            }
+        },
+        KEBAB('-', false, false) {
+            @Override
+            String doConvert(String str) {
+                return SNAKE.convert(str).replace('_', '-');
+            }
+        },
+        UPPER_CAMEL((char) 0, true, true),
+        LOWER_CAMEL((char) 0, true, false);
+
+        /**
+         * 单词分隔符，驼峰格式不使用分隔符
+         */
+        private final char separator;
+
+        /**
+         * 单词首字母是否大写
+         */
+        private final boolean capitalize;
+
+        /**
+         * 第一个单词首字母是否大写
+         */
+        private final boolean capitalizeFirst;
+
+        private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+        Style(char separator, boolean capitalize, boolean capitalizeFirst) {
+            this.separator = separator;
+            this.capitalize = capitalize;
+            this.capitalizeFirst = capitalizeFirst;
+        }
+
+        String convert(String str) {
+            if (null == str || str.isEmpty()) {
+                return "";
+            }
+
+            String result = cache.get(str);
+            if (null == result) {
+                result = this.doConvert(str);
+                if (cache.size() >= MAX_CACHE_SIZE) {
+                    cache.clear();
+                }
+                cache.put(str, result);
+            }
+
+            return result;
+        }
+
+        int cacheSize() {
+            return cache.size();
+        }
+
+        /**
+         * 单次遍历完成拆分及拼接
+         */
+        String doConvert(String str) {
+            int length = str.length();
+            StringBuilder sb = new StringBuilder(length + 8);
+            boolean pendingBoundary = false;
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                if (isSeparator(c)) {
+                    pendingBoundary = true;
+                    continue;
+                }
+
+                boolean wordStart = sb.isEmpty() || pendingBoundary || isCamelBoundary(str, i);
+                pendingBoundary = false;
+                if (!wordStart) {
+                    sb.append(Character.toLowerCase(c));
+                } else if (sb.isEmpty()) {
+                    sb.append(capitalizeFirst ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                } else {
+                    if (0 != separator) {
+                        sb.append(separator);
+                    }
+                    sb.append(capitalize ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                }
+            }
+
+            return sb.toString();
+        }
+
+        /**
+         * 单次遍历按字符类型拆分并以下划线拼接，结果与splitByCharacterTypeCamelCase拆分后转小写拼接一致；
+         * 只有一个单词时只将首字母转换成小写
+         */
+        private static String splitByCharacterType(String str) {
+            if (str.isBlank()) {
+                return "";
+            }
+
+            int length = str.length();
+            StringBuilder sb = new StringBuilder(length + 8);
+            int tokenStart = 0;
+            int tokens = 0;
+            int currentType = Character.getType(str.charAt(0));
+            for (int pos = 1; pos < length; pos++) {
+                int type = Character.getType(str.charAt(pos));
+                if (type == currentType) {
+                    continue;
+                }
+
+                // 大写字母后跟小写字母时，最后一个大写字母属于后一个单词
+                int end = type == Character.LOWERCASE_LETTER && currentType == Character.UPPERCASE_LETTER ? pos - 1 : pos;
+                if (end != tokenStart) {
+                    appendToken(sb, str, tokenStart, end, tokens++);
+                    tokenStart = end;
+                }
+                currentType = type;
+            }
+
+            if (0 == tokens) {
+                return firstLetterToLower(str);
+            }
+            appendToken(sb, str, tokenStart, length, tokens);
+            return sb.toString();
+        }
+
+        private static void appendToken(StringBuilder sb, String str, int start, int end, int index) {
+            if (0 != index) {
+                sb.append('_');
+            }
+            sb.append(str.substring(start, end).toLowerCase());
+        }
+
+        private static boolean isSeparator(char c) {
+            return c == '_' || c == '-' || c == ' ' || c == '.';
+        }
+
+        /**
+         * 判断指定位置的字符是否开始一个新单词
+         */
+        private static boolean isCamelBoundary(String str, int i) {
+            if (0 == i) {
+                return false;
+            }
+
+            // 数字与字母之间
+            char c = str.charAt(i);
+            char prev = str.charAt(i - 1);
+            if (Character.isDigit(c) != Character.isDigit(prev) && !isSeparator(prev)) {
+                return true;
+            }
+            if (!Character.isUpperCase(c)) {
+                return false;
+            }
+            if (Character.isLowerCase(prev)) {
+                return true;
+            }
+
+            // 缩写的结束位置
+            return Character.isUpperCase(prev) && i + 1 < str.length() && Character.isLowerCase(str.charAt(i + 1));
+        }
     }
 }
@@ -5,7 +5,10 @@ import com.intellij.openapi.fileTypes.FileTypes;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.roots.ModuleRootManager;
+import com.intellij.openapi.roots.ProjectRootModificationTracker;
 import com.intellij.openapi.util.Computable;
+import com.intellij.openapi.util.Key;
+import com.intellij.openapi.vfs.VfsUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.psi.*;
 import com.intellij.psi.codeStyle.CodeStyleManager;
@@ -13,20 +16,24 @@ import com.intellij.psi.codeStyle.JavaCodeStyleManager;
 import com.intellij.psi.impl.file.PsiDirectoryFactory;
 import com.intellij.psi.search.GlobalSearchScope;
 import com.intellij.psi.search.PsiShortNamesCache;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.psi.util.PsiModificationTracker;
 import com.liuqi.tool.idea.plugin.codegenerator.bean.ClassDefiner;
-import org.apache.commons.collections.MapUtils;
+import com.liuqi.tool.idea.plugin.codegenerator.service.GeneratorConfigService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.jps.model.java.JavaModuleSourceRootTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.Yaml;
 
 import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 /**
@@ -38,9 +45,17 @@ import java.util.function.Predicate;
 public class PsiUtils {
     private static final Logger log = LoggerFactory.getLogger(PsiUtils.class);
 
+    private static final Key<CachedValue<Map<String, Optional<SmartPsiElementPointer<PsiClass>>>>> CLASS_CACHE_KEY =
+            Key.create("codeGenerator.classCache");
+
     private Project project;
     private Module module;
 
+    /**
+     * 所属生成过程的耗时统计，不在生成过程中时不做记录
+     */
+    private GenerationMetrics metrics = GenerationMetrics.none();
+
     private PsiUtils(Module module) {
         this.module = module;
         this.project = module.getProject();
@@ -50,31 +65,19 @@ public class PsiUtils {
         return new PsiUtils(module);
     }
 
+    /**
+     * 设置所属生成过程的耗时统计
+     */
+    public PsiUtils metrics(GenerationMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
     /**
      * 根据类名加载类生成配置
      */
     public static ClassDefiner loadClassDefiner(Project project, String className) {
-        PsiFile[] files = PsiShortNamesCache.getInstance(project).getFilesByName(className + ".yaml");
-        ClassDefiner definer = new ClassDefiner();
-        for (PsiFile file : files) {
-            if (!file.getContainingDirectory().getName().equals("code-generator")) {
-                continue;
-            }
-
-            Map<String, Object> obj = new Yaml().load(file.getText());
-            log.debug("加载类生成配置：{}", obj);
-
-            definer.setDir(MapUtils.getString(obj, "dir"))
-                    .setName(MapUtils.getString(obj, "name"))
-                    .setImports((List<String>) obj.get("imports"))
-                    .setLike(MapUtils.getString(obj, "like"))
-                    .setTemplate(MapUtils.getString(obj, "template"))
-                    .setComment(MapUtils.getString(obj, "comment"));
-
-            return definer;
-        }
-
-        return definer;
+        return GeneratorConfigService.getInstance(project).getClassDefiner(className);
     }
 
     /**
@@ -220,7 +223,10 @@ public class PsiUtils {
      * @param psiElement 需要格式化的文件
      */
     public void format(PsiElement psiElement) {
-        CodeStyleManager.getInstance(project).reformat(psiElement);
+        metrics.increment(GenerationMetrics.Counter.REFORMAT_CALLS);
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.REFORMAT)) {
+            CodeStyleManager.getInstance(project).reformat(psiElement);
+        }
     }
 
     /**
@@ -230,32 +236,44 @@ public class PsiUtils {
      * @return 查找到的类
      */
     public Optional<PsiClass> findClass(String className) {
-        return findClass(className, psiClass -> true);
+        Map<String, Optional<SmartPsiElementPointer<PsiClass>>> cache = this.getClassCache();
+        Optional<SmartPsiElementPointer<PsiClass>> cached = cache.get(className);
+        if (null != cached) {
+            if (cached.isEmpty()) {
+                return Optional.empty();
+            }
+
+            PsiClass psiClass = cached.get().getElement();
+            if (null != psiClass) {
+                return Optional.of(psiClass);
+            }
+        }
+
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.FIND_CLASS)) {
+            Optional<PsiClass> result = findClass(className, psiClass -> true);
+            cache.put(className, result.map(SmartPointerManager::createPointer));
+            metrics.increment(GenerationMetrics.Counter.CLASSES_RESOLVED);
+            return result;
+        }
     }
 
     /**
      * 根据条件查找类
+     * 全限定名直接通过JavaPsiFacade解析，只有简单类名时才遍历同名类
      */
     public Optional<PsiClass> findClass(String className, Predicate<PsiClass> predicate) {
-        PsiShortNamesCache shortNamesCache = PsiShortNamesCache.getInstance(project);
-
-        int idx = className.lastIndexOf(".");
-        if (-1 != idx) {
-            String packageName = className.substring(0, idx);
-            String name = className.substring(idx + 1);
-            PsiClass[] classes = shortNamesCache.getClassesByName(name, GlobalSearchScope.allScope(project));
-
-            for (PsiClass aClass : classes) {
-                PsiJavaFile javaFile = (PsiJavaFile) aClass.getContainingFile();
-                if (javaFile.getPackageName().equals(packageName) && predicate.test(aClass)) {
+        GlobalSearchScope scope = GlobalSearchScope.allScope(project);
+        if (className.contains(".")) {
+            for (PsiClass aClass : JavaPsiFacade.getInstance(project).findClasses(className, scope)) {
+                if (predicate.test(aClass)) {
                     return Optional.of(aClass);
                 }
             }
         } else {
-            PsiClass[] classes = shortNamesCache.getClassesByName(className, GlobalSearchScope.allScope(project));
+            PsiClass[] classes = PsiShortNamesCache.getInstance(project).getClassesByName(className, scope);
             for (PsiClass aClass : classes) {
                 if (predicate.test(aClass)) {
-                    return Optional.ofNullable(aClass);
+                    return Optional.of(aClass);
                 }
             }
         }
@@ -263,25 +281,45 @@ public class PsiUtils {
         return Optional.empty();
     }
 
+    /**
+     * 获取类查找缓存，包括未找到的结果；PSI或者项目依赖发生变化时缓存失效
+     */
+    private Map<String, Optional<SmartPsiElementPointer<PsiClass>>> getClassCache() {
+        return CachedValuesManager.getManager(project).getCachedValue(project, CLASS_CACHE_KEY,
+                () -> CachedValueProvider.Result.create(new ConcurrentHashMap<>(),
+                        PsiModificationTracker.MODIFICATION_COUNT,
+                        ProjectRootModificationTracker.getInstance(project)), false);
+    }
+
     /**
      * 获取或者创建子目录
+     * 已存在时只通过VFS查找，不需要写操作；缺失的多级目录在一个写操作中一次创建
      *
      * @param parentDirectory  父级目录
-     * @param subDirectoryName 子目录名称
-     * @return 查找到的或者创建的子目录名称
+     * @param subDirectoryName 子目录名称，多级目录使用.分隔，如包名
+     * @return 查找到的或者创建的子目录
      */
     public PsiDirectory getOrCreateSubDirectory(PsiDirectory parentDirectory, String subDirectoryName) {
-        PsiDirectory directory = null;
-        for (String subDir : subDirectoryName.split("\\.")) {
-            directory = parentDirectory.findSubdirectory(subDir);
-            if (null == directory) {
-                PsiDirectory pParentDirectory = parentDirectory;
-                directory = WriteCommandAction.runWriteCommandAction(project, (Computable<PsiDirectory>) () -> pParentDirectory.createSubdirectory(subDir));
-            }
-            parentDirectory = directory;
+        try (GenerationMetrics.Timer ignored = metrics.time(GenerationMetrics.Phase.DIRECTORY)) {
+            return this.doGetOrCreateSubDirectory(parentDirectory, subDirectoryName);
+        }
+    }
+
+    private PsiDirectory doGetOrCreateSubDirectory(PsiDirectory parentDirectory, String subDirectoryName) {
+        VirtualFile root = parentDirectory.getVirtualFile();
+        String relativePath = subDirectoryName.replace('.', '/');
+        VirtualFile directory = root.findFileByRelativePath(relativePath);
+        if (null == directory || !directory.isDirectory()) {
+            directory = WriteCommandAction.runWriteCommandAction(project, (Computable<VirtualFile>) () -> {
+                try {
+                    return VfsUtil.createDirectoryIfMissing(root, relativePath);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
         }
 
-        return directory;
+        return PsiManager.getInstance(project).findDirectory(directory);
     }
 
     /**
@@ -387,19 +425,30 @@ public class PsiUtils {
         return root.findFileByRelativePath(fileName);
     }
 
+    /**
+     * 获取资源文件的完整路径，文件可以不存在
+     */
+    public String getResourcePath(String fileName) {
+        VirtualFile root = this.getResourceRoot();
+        if (null == root) {
+            return null;
+        }
+        return root.getPath() + "/" + fileName;
+    }
+
     /**
      * 获取resource目录下的子目录
      */
     public PsiDirectory getResourceDir(String dir) {
         // 如果dir包含有文件名，需要移除
         if (dir.contains(".")) {
-            dir = dir.substring(0, dir.lastIndexOf("/"));
+            dir = dir.substring(0, Math.max(0, dir.lastIndexOf("/")));
         }
         VirtualFile root = this.getResourceRoot();
-        VirtualFile child = root.findChild(dir);
+        VirtualFile child = dir.isEmpty() ? root : root.findFileByRelativePath(dir);
         if (null == child) {
             try {
-                child = root.createChildDirectory(this, dir);
+                child = VfsUtil.createDirectoryIfMissing(root, dir);
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
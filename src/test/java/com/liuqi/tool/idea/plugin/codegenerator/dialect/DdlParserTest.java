@@ -0,0 +1,226 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 建表语句解析测试
+ */
+public class DdlParserTest {
+    @Test
+    public void parseMySql() throws IOException {
+        List<ParsedTable> tables = parse("""
+                CREATE TABLE IF NOT EXISTS `db`.`t_user` (
+                  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT '主键',
+                  `user_name` varchar(64) DEFAULT NULL COMMENT '用户名',
+                  `amount` decimal(24, 4) NOT NULL DEFAULT '0.0000',
+                  `status` tinyint(1) DEFAULT 1,
+                  `create_time` datetime DEFAULT CURRENT_TIMESTAMP,
+                  PRIMARY KEY (`id`),
+                  UNIQUE KEY `uk_name` (`user_name`),
+                  KEY `idx_status` (`status`) USING BTREE
+                ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
+                """);
+
+        assertEquals(1, tables.size());
+        ParsedTable table = tables.get(0);
+        assertEquals("t_user", table.name());
+        assertEquals("用户表", table.comment());
+        assertEquals(5, table.columns().size());
+        assertColumn(table.columns().get(0), "id", "bigint(20) unsigned", false, "主键");
+        assertColumn(table.columns().get(1), "user_name", "varchar(64)", true, "用户名");
+        assertColumn(table.columns().get(2), "amount", "decimal(24,4)", false, "");
+        assertColumn(table.columns().get(3), "status", "tinyint(1)", true, "");
+        assertColumn(table.columns().get(4), "create_time", "datetime", true, "");
+    }
+
+    @Test
+    public void parsePostgreSql() throws IOException {
+        List<ParsedTable> tables = parse("""
+                create unlogged table public."order" (
+                    id bigserial primary key,
+                    "Name" character varying(32) not null,
+                    price double precision,
+                    paid_at timestamp with time zone,
+                    tags text[] default '{}'::text[]
+                );
+                comment on table public."order" is '订单';
+                comment on column public."order"."Name" is '名称';
+                comment on column "order".price is 'it''s price';
+                """);
+
+        assertEquals(1, tables.size());
+        ParsedTable table = tables.get(0);
+        assertEquals("order", table.name());
+        assertEquals("订单", table.comment());
+        assertColumn(table.columns().get(0), "id", "bigserial", false, "");
+        assertColumn(table.columns().get(1), "Name", "character varying(32)", false, "名称");
+        assertColumn(table.columns().get(2), "price", "double precision", true, "it's price");
+        assertColumn(table.columns().get(3), "paid_at", "timestamp with time zone", true, "");
+        assertEquals("tags", table.columns().get(4).name());
+    }
+
+    @Test
+    public void parseH2() throws IOException {
+        List<ParsedTable> tables = parse("""
+                CREATE CACHED TABLE ignored (id int);
+                CREATE TEMPORARY TABLE "PUBLIC"."T_LOG" (
+                    "ID" BIGINT AUTO_INCREMENT,
+                    "MESSAGE" CLOB COMMENT '日志内容',
+                    "LEVEL" VARCHAR(8) NOT NULL,
+                    CONSTRAINT "PK_LOG" PRIMARY KEY ("ID")
+                );
+                COMMENT ON TABLE "PUBLIC"."T_LOG" IS '日志';
+                """);
+
+        // create cached table不是普通的建表语句写法，不解析
+        assertEquals(1, tables.size());
+        ParsedTable table = tables.get(0);
+        assertEquals("T_LOG", table.name());
+        assertEquals("日志", table.comment());
+        assertColumn(table.columns().get(0), "ID", "bigint", false, "");
+        assertColumn(table.columns().get(1), "MESSAGE", "clob", true, "日志内容");
+        assertColumn(table.columns().get(2), "LEVEL", "varchar(8)", false, "");
+    }
+
+    @Test
+    public void quotedIdentifiers() throws IOException {
+        List<ParsedTable> tables = parse("""
+                create table `my table` (`select` int, "a""b" int, `semi;colon` varchar(10) comment 'a;b');
+                """);
+
+        ParsedTable table = tables.get(0);
+        assertEquals("my table", table.name());
+        assertEquals(3, table.columns().size());
+        assertEquals("select", table.columns().get(0).name());
+        assertEquals("a\"b", table.columns().get(1).name());
+        assertColumn(table.columns().get(2), "semi;colon", "varchar(10)", true, "a;b");
+    }
+
+    @Test
+    public void stringEscapes() throws IOException {
+        List<ParsedTable> tables = parse("""
+                create table t (a int comment 'it\\'s', b int comment 'x''y', c int comment '-- not a comment');
+                """);
+
+        List<ParsedTable.Column> columns = tables.get(0).columns();
+        assertEquals("it's", columns.get(0).comment());
+        assertEquals("x'y", columns.get(1).comment());
+        assertEquals("-- not a comment", columns.get(2).comment());
+    }
+
+    @Test
+    public void comments() throws IOException {
+        List<ParsedTable> tables = parse("""
+                /*
+                 * 多行注释；其中的分号不结束语句
+                 * create table fake (id int);
+                 */
+                -- create table fake2 (id int);
+                # create table fake3 (id int);
+                create /* inline */ table t (
+                    id int, -- 行尾注释; 带分号
+                    /* 块注释 */ name varchar(32) # 井号注释
+                );
+                """);
+
+        assertEquals(1, tables.size());
+        assertEquals("t", tables.get(0).name());
+        assertEquals(2, tables.get(0).columns().size());
+        assertColumn(tables.get(0).columns().get(1), "name", "varchar(32)", true, "");
+    }
+
+    @Test
+    public void skipOtherStatements() throws IOException {
+        String sql = """
+                set names utf8mb4;
+                drop table if exists t;
+                insert into t values (1, 'create table x (id int);');
+                create index idx_t on t (id);
+                create view v as select 1;
+                create table t (id int);
+                """;
+        DdlParser parser = new DdlParser(new StringReader(sql));
+        while (parser.next()) {
+            // 读取所有语句
+        }
+
+        assertEquals(1, parser.getTables().size());
+        assertEquals("t", parser.getTables().get(0).name());
+        assertEquals(sql.length(), parser.getOffset());
+    }
+
+    @Test
+    public void commentOnUnknownTable() throws IOException {
+        List<ParsedTable> tables = parse("""
+                comment on table missing is 'x';
+                create table t (id int);
+                comment on column t.missing is 'x';
+                comment on column t.ID is '主键';
+                comment on index idx is 'x';
+                """);
+
+        assertEquals(1, tables.size());
+        assertEquals("", tables.get(0).comment());
+        assertEquals("主键", tables.get(0).columns().get(0).comment());
+    }
+
+    @Test
+    public void tablesInOrder() throws IOException {
+        List<ParsedTable> tables = parse("create table b (id int); create table a (id int); create table B (x int)");
+
+        // 表名不区分大小写，后出现的同名表覆盖前面的定义
+        assertEquals(2, tables.size());
+        assertEquals("B", tables.get(0).name());
+        assertEquals("x", tables.get(0).columns().get(0).name());
+        assertEquals("a", tables.get(1).name());
+    }
+
+    @Test
+    public void emptyInput() throws IOException {
+        DdlParser parser = new DdlParser(new StringReader(""));
+        assertFalse(parser.next());
+        assertTrue(parser.getTables().isEmpty());
+    }
+
+    @Test
+    public void javaTypes() {
+        SqlDialect mysql = SqlDialects.find("mysql").orElseThrow();
+        assertEquals("Long", mysql.getJavaType("bigint(20) unsigned"));
+        assertEquals("BigDecimal", mysql.getJavaType("decimal(24,4)"));
+        assertEquals("LocalDateTime", mysql.getJavaType("datetime"));
+        assertEquals("String", mysql.getJavaType("unknown_type"));
+
+        SqlDialect postgres = SqlDialects.find("postgresql").orElseThrow();
+        assertEquals("String", postgres.getJavaType("character varying(32)"));
+        assertEquals("Double", postgres.getJavaType("double precision"));
+        assertEquals("OffsetDateTime", postgres.getJavaType("timestamp with time zone"));
+
+        SqlDialect h2 = SqlDialects.find("h2").orElseThrow();
+        assertEquals("String", h2.getJavaType("clob"));
+        assertEquals("Long", h2.getJavaType("bigint"));
+    }
+
+    private static List<ParsedTable> parse(String sql) throws IOException {
+        DdlParser parser = new DdlParser(new StringReader(sql));
+        while (parser.next()) {
+            // 读取所有语句
+        }
+
+        return parser.getTables();
+    }
+
+    private static void assertColumn(ParsedTable.Column column, String name, String type, boolean nullable, String comment) {
+        assertEquals(name, column.name());
+        assertEquals(type, column.type());
+        assertEquals(nullable, column.nullable());
+        assertEquals(comment, column.comment());
+    }
+}
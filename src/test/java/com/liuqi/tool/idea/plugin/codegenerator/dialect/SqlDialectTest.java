@@ -0,0 +1,107 @@
+package com.liuqi.tool.idea.plugin.codegenerator.dialect;
+
+import com.liuqi.tool.idea.plugin.codegenerator.bean.FieldModel;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 建表语句生成测试
+ */
+public class SqlDialectTest {
+    private static final List<FieldModel> FIELDS = List.of(
+            field("id", "Long", "id", true, ""),
+            field("userName", "String", "user_name", true, "用户名"),
+            field("age", "int", "age", false, ""),
+            field("count", "Short", "count", true, ""),
+            field("score", "double", "score", false, ""),
+            field("amount", "BigDecimal", "amount", true, ""),
+            field("enabled", "Boolean", "enabled", true, ""),
+            field("birthday", "LocalDate", "birthday", true, ""),
+            field("createTime", "LocalDateTime", "create_time", true, ""),
+            field("updateTime", "LocalDateTime", "update_time", true, "更新时间"));
+
+    @Test
+    public void mysqlKeepsBaselineDdl() {
+        SqlDialect dialect = SqlDialects.find("mysql").orElseThrow();
+        assertEquals("""
+
+                create table t_user(
+                \tid bigint not null primary key auto_increment comment '主键',
+                \tuser_name varchar(255) comment '用户名',
+                \tage integer default 0,
+                \tcount integer default 0,
+                \tscore Numeric(24, 4) default 0,
+                \tamount varchar(255),
+                \tenabled int(1) default 0,
+                \tbirthday timestamp,
+                \tcreate_time timestamp default current_timestamp,
+                \tupdate_time timestamp on update current_timestamp comment '更新时间'
+                )""", dialect.createTable("t_user", FIELDS));
+    }
+
+    @Test
+    public void mysqlStringId() {
+        SqlDialect dialect = SqlDialects.find("mysql").orElseThrow();
+        assertEquals("\ncreate table t(\n\tid varchar(64) not null primary key comment '主键'\n)",
+                dialect.createTable("t", List.of(field("id", "String", "id", true, ""))));
+    }
+
+    @Test
+    public void mysqlSchemaIgnoresNullability() {
+        SqlDialect dialect = SqlDialects.find("mysql").orElseThrow();
+        assertTrue(dialect.toSchema("t_user", FIELDS).columns().stream().allMatch(TableSchema.Column::nullable));
+    }
+
+    @Test
+    public void currentTimestampOnlyForTimestampColumns() {
+        List<FieldModel> fields = List.of(field("createTime", "LocalDate", "create_time", true, ""),
+                field("updateTime", "LocalDateTime", "update_time", true, ""));
+        for (String name : new String[]{"postgresql", "h2"}) {
+            SqlDialect dialect = SqlDialects.find(name).orElseThrow();
+            String ddl = dialect.createTable("t", fields);
+            assertTrue(ddl, ddl.contains("create_time date,"));
+            assertTrue(ddl, ddl.contains("update_time timestamp default current_timestamp"));
+        }
+    }
+
+    @Test
+    public void postgreSqlComments() {
+        SqlDialect dialect = SqlDialects.find("postgresql").orElseThrow();
+        String ddl = dialect.createTable("t_user", FIELDS);
+        assertFalse(ddl, ddl.contains(" comment '"));
+        assertTrue(ddl, ddl.contains("\ncomment on column t_user.user_name is '用户名';"));
+        assertTrue(ddl, ddl.contains("\tage integer default 0 not null"));
+    }
+
+    @Test
+    public void alterTable() {
+        SqlDialect dialect = SqlDialects.find("mysql").orElseThrow();
+        TableSchema previous = dialect.toSchema("t_user", FIELDS.subList(0, 3));
+        TableSchema current = dialect.toSchema("t_user", List.of(FIELDS.get(0), field("userName", "String", "user_name", true, "名称"),
+                FIELDS.get(3)));
+        assertEquals("""
+
+                alter table t_user modify column user_name varchar(255) comment '名称';
+                alter table t_user add column count integer default 0;
+                alter table t_user drop column age;""", dialect.alterTable(previous, current));
+        assertEquals("", dialect.alterTable(previous, previous));
+    }
+
+    private static FieldModel field(String name, String type, String column, boolean nullable, String comment) {
+        return FieldModel.builder()
+                .setName(name)
+                .setType(type)
+                .setQualifiedType(type)
+                .setColumn(column)
+                .setColumnDefinition("")
+                .setComment(comment)
+                .setNullable(nullable)
+                .setDeclared(true)
+                .build();
+    }
+}
@@ -0,0 +1,115 @@
+package com.liuqi.tool.idea.plugin.codegenerator.template;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 模板编译及渲染测试
+ */
+public class TemplateCompilerTest {
+    private static final List<Map<String, String>> FIELDS = List.of(
+            Map.of("FIELD_PROP", "name", "FIELD_NAME", "名称"),
+            Map.of("FIELD_PROP", "age", "FIELD_NAME", "年龄"));
+
+    @Test
+    public void placeholders() {
+        CompiledTemplate template = TemplateCompiler.parse("class $T$ extends $BASE$ {$BR$}");
+        assertEquals(Set.of("T", "BASE", "BR"), template.getPlaceholders());
+        assertEquals("class User extends $BASE$ {\n}", template.render(Map.of("T", "User", "BR", "\n")));
+    }
+
+    @Test
+    public void dollarInLiterals() {
+        CompiledTemplate template = TemplateCompiler.parse("price: $100 and $ alone, $T$ $@missing$ a$b $ $$ $T");
+        assertEquals(Set.of("T"), template.getPlaceholders());
+        assertEquals("price: $100 and $ alone, x $@missing$ a$b $ $$ $T", template.render(Map.of("T", "x")));
+        assertEquals("$", TemplateCompiler.parse("$").render(Map.of()));
+        assertEquals("$$$", TemplateCompiler.parse("$$$").render(Map.of()));
+    }
+
+    @Test
+    public void multipleBlocks() {
+        CompiledTemplate template = TemplateCompiler.parse(
+                "<form>$$$loopFields<input v-model=\"$FIELD_PROP$\"/>$$$</form><table>$$$loopColumns<col label=\"$FIELD_NAME$\"/>$$$</table>");
+        assertEquals(Set.of("loopFields", "loopColumns"), template.getLoops());
+        assertEquals("<form>\n\t<input v-model=\"name\"/>\n\t<input v-model=\"age\"/>\n\t</form>"
+                        + "<table>\n\t<col label=\"名称\"/>\n\t<col label=\"年龄\"/>\n\t</table>",
+                template.render(new TemplateContext(Map.of()).defaultLoop(FIELDS)));
+    }
+
+    @Test
+    public void adjacentBlocks() {
+        CompiledTemplate template = TemplateCompiler.parse("$$$loopFields[$FIELD_PROP$]$$$$$$loopFields($FIELD_NAME$)$$$");
+        assertEquals("\n\t[name]\n\t[age]\n\t\n\t(名称)\n\t(年龄)\n\t",
+                template.render(new TemplateContext(Map.of()).loop("loopFields", FIELDS)));
+    }
+
+    @Test
+    public void unterminatedBlock() {
+        // 没有结束标记时不是循环块，其中的占位符仍然正常替换
+        CompiledTemplate template = TemplateCompiler.parse("a$$$loopFields<$T$>");
+        assertTrue(template.getLoops().isEmpty());
+        assertEquals("a$$$loopFields<x>", template.render(new TemplateContext(Map.of("T", "x")).defaultLoop(FIELDS)));
+
+        // 第一个循环块完整，第二个缺少结束标记
+        template = TemplateCompiler.parse("$$$loopFields$FIELD_PROP$,$$$ $$$loopItems$FIELD_PROP$");
+        assertEquals(Set.of("loopFields"), template.getLoops());
+        assertEquals("\n\tname,\n\tage,\n\t $$$loopItems$FIELD_PROP$",
+                template.render(new TemplateContext(Map.of()).defaultLoop(FIELDS)));
+    }
+
+    @Test
+    public void loopNames() {
+        // loopFields精确匹配，循环体可以直接以字母开头；其它名称取到第一个非字母数字的字符
+        assertEquals(Set.of("loopFields"), TemplateCompiler.parse("$$$loopFieldsName$$$").getLoops());
+        assertEquals(Set.of("loopItems2"), TemplateCompiler.parse("$$$loopItems2 x$$$").getLoops());
+        assertEquals("\n\tName\n\tName\n\t",
+                TemplateCompiler.parse("$$$loopFieldsName$$$").render(new TemplateContext(Map.of()).defaultLoop(FIELDS)));
+    }
+
+    @Test
+    public void loopData() {
+        CompiledTemplate template = TemplateCompiler.parse("$$$loopFields$FIELD_PROP$,$$$|$$$loopOther$FIELD_PROP$,$$$");
+
+        // 单独设置的数据优先于默认数据
+        TemplateContext context = new TemplateContext(Map.of())
+                .loop("loopOther", List.of(Map.of("FIELD_PROP", "x")))
+                .defaultLoop(FIELDS);
+        assertEquals("\n\tname,\n\tage,\n\t|\n\tx,\n\t", template.render(context));
+
+        // 没有数据的循环块原样输出
+        assertEquals("\n\tx,\n\t|$$$loopOther$FIELD_PROP$,$$$",
+                template.render(new TemplateContext(Map.of()).loop("loopFields", List.of(Map.of("FIELD_PROP", "x")))));
+    }
+
+    @Test
+    public void loopBodyUsesParentVariables() {
+        CompiledTemplate template = TemplateCompiler.parse("$$$loopFields$PATH$/$FIELD_PROP$;$BR$;$$$");
+        assertEquals("\n\tuser/name;\n;\n\tuser/age;\n;\n\t",
+                template.render(new TemplateContext(Map.of("PATH", "user", "BR", "\n")).defaultLoop(FIELDS)));
+    }
+
+    @Test
+    public void loopInFragment() {
+        CompiledTemplate fragment = TemplateCompiler.parse("$$$loopColumns<$FIELD_PROP$>$$$");
+        CompiledTemplate template = TemplateCompiler.parse("<table>$@columns$</table>$@missing$");
+        assertEquals(Set.of("columns", "missing"), template.getIncludes());
+        assertEquals("<table>\n\t<name>\n\t<age>\n\t</table>$@missing$", template.render(new TemplateContext(Map.of())
+                .defaultLoop(FIELDS)
+                .fragments(name -> "columns".equals(name) ? fragment : null)));
+    }
+
+    @Test
+    public void compileCache() {
+        String source = "cached $T$";
+        assertSame(TemplateCompiler.compile(source), TemplateCompiler.compile(source));
+        assertEquals("", TemplateCompiler.compile(null).render(Map.of()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.liuqi.tool.idea.plugin.codegenerator.utils;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 列名与属性名转换测试
+ */
+public class ColumnNamesTest {
+    @Test
+    public void fieldNames() {
+        assertEquals(List.of("userName", "classValue", "defaultValue", "order", "column2Nd", "column"),
+                ColumnNames.toFieldNames(List.of("user_name", "class", "default", "order", "2nd", "-")));
+    }
+
+    @Test
+    public void duplicateFieldNames() {
+        assertEquals(List.of("userName", "userName2", "userName3"),
+                ColumnNames.toFieldNames(List.of("user_name", "userName", "USER_NAME")));
+    }
+
+    @Test
+    public void className() {
+        assertEquals("UserInfoEntity", ColumnNames.toClassName("user_info"));
+        assertEquals("Table2019DataEntity", ColumnNames.toClassName("2019_data"));
+    }
+
+    @Test
+    public void roundTrip() {
+        List<String> columns = List.of("user_name", "id", "line2", "userName", "class", "address_2_line", "2nd",
+                "create_time", "HTTP_URL", "order");
+        List<String> fields = ColumnNames.toFieldNames(columns);
+        for (int i = 0; i < columns.size(); i++) {
+            String field = fields.get(i);
+            String column = columns.get(i);
+
+            // 需要标注时注解中记录原列名，生成代码时得到的列名与原列名一致
+            String annotated = ColumnNames.needsColumnAnnotation(field, column) ? column : null;
+            assertEquals(column, ColumnNames.toColumn(field, annotated));
+        }
+    }
+
+    @Test
+    public void columnAnnotationOnlyWhenNeeded() {
+        assertFalse(ColumnNames.needsColumnAnnotation("userName", "user_name"));
+        assertFalse(ColumnNames.needsColumnAnnotation("createTime", "create_time"));
+        assertFalse(ColumnNames.needsColumnAnnotation("address2Line", "address_2_line"));
+        assertTrue(ColumnNames.needsColumnAnnotation("line2", "line2"));
+        assertTrue(ColumnNames.needsColumnAnnotation("userName", "userName"));
+        assertTrue(ColumnNames.needsColumnAnnotation("classValue", "class"));
+        assertTrue(ColumnNames.needsColumnAnnotation("httpUrl", "HTTP_URL"));
+    }
+
+    @Test
+    public void annotatedColumn() {
+        assertEquals("user_name", ColumnNames.toColumn("userName", null));
+        assertEquals("user_name", ColumnNames.toColumn("userName", ""));
+        assertEquals("line2", ColumnNames.toColumn("line2", "line2"));
+    }
+}
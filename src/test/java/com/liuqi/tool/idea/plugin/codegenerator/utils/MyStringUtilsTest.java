@@ -0,0 +1,117 @@
+package com.liuqi.tool.idea.plugin.codegenerator.utils;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 名称格式转换测试
+ */
+public class MyStringUtilsTest {
+    @Test
+    public void acronyms() {
+        assertEquals("http_url_name", MyStringUtils.toSnakeCase("HTTPUrlName"));
+        assertEquals("http-url-name", MyStringUtils.toKebabCase("HTTPUrlName"));
+        assertEquals("HttpUrlName", MyStringUtils.toCamelCase("HTTPUrlName"));
+        assertEquals("httpUrlName", MyStringUtils.toLowerCamelCase("HTTPUrlName"));
+        assertEquals("userId", MyStringUtils.toLowerCamelCase("userID"));
+        assertEquals("user_id", MyStringUtils.toSnakeCase("userID"));
+
+        // 只有一个单词时与原实现一致，只将首字母转换成小写
+        assertEquals("iD", MyStringUtils.toSnakeCase("ID"));
+    }
+
+    @Test
+    public void digits() {
+        assertEquals("address_2", MyStringUtils.toSnakeCase("address2"));
+        assertEquals("http_url_2_name", MyStringUtils.toSnakeCase("HTTPUrl2Name"));
+        assertEquals("line_2_name", MyStringUtils.toSnakeCase("line2name"));
+        assertEquals("md-5-sum", MyStringUtils.toKebabCase("md5sum"));
+
+        // 驼峰格式中数字同样单独作为一个单词
+        assertEquals("line2Name", MyStringUtils.toLowerCamelCase("line2name"));
+        assertEquals("line2Name", MyStringUtils.toLowerCamelCase("line_2_name"));
+        assertEquals("Address2Line", MyStringUtils.toCamelCase("address_2_line"));
+        assertEquals("HttpUrl2Name", MyStringUtils.toCamelCase("http_url2name"));
+        assertEquals("v10Api", MyStringUtils.toLowerCamelCase("V10API"));
+    }
+
+    @Test
+    public void camelToSnakeRoundTrip() {
+        for (String name : new String[]{"userName", "httpUrl2Name", "address2Line", "md5Sum", "createTime"}) {
+            assertEquals(name, MyStringUtils.toLowerCamelCase(MyStringUtils.toSnakeCase(name)));
+            assertEquals(name, MyStringUtils.toLowerCamelCase(MyStringUtils.toKebabCase(name)));
+        }
+    }
+
+    @Test
+    public void separators() {
+        assertEquals("UserName", MyStringUtils.toCamelCase("user_name"));
+        assertEquals("userName", MyStringUtils.toLowerCamelCase("user-name"));
+        assertEquals("userName", MyStringUtils.toLowerCamelCase("user name"));
+        assertEquals("userName", MyStringUtils.toLowerCamelCase("__user..name__"));
+        assertEquals("", MyStringUtils.toCamelCase("_-"));
+    }
+
+    @Test
+    public void leadingRegexMetacharacters() {
+        // 原实现通过replaceFirst替换首字母，首字母为正则元字符时会出错
+        assertEquals("$name", MyStringUtils.firstLetterToLower("$name"));
+        assertEquals("*Abc", MyStringUtils.firstLetterToLower("*Abc"));
+        assertEquals("(x", MyStringUtils.firstLetterToLower("(x"));
+        assertEquals("\\A", MyStringUtils.firstLetterToLower("\\A"));
+        assertEquals("$_user_name", MyStringUtils.toSnakeCase("$UserName"));
+        assertEquals("[_user", MyStringUtils.toSnakeCase("[User"));
+    }
+
+    @Test
+    public void emptyInput() {
+        assertEquals("", MyStringUtils.firstLetterToLower(null));
+        assertEquals("", MyStringUtils.firstLetterToLower(" "));
+        assertEquals("", MyStringUtils.toSnakeCase(null));
+        assertEquals("", MyStringUtils.toSnakeCase(""));
+        assertEquals("", MyStringUtils.toSnakeCase("  "));
+        assertEquals("", MyStringUtils.toCamelCase(null));
+    }
+
+    @Test
+    public void snakeMatchesBaseline() {
+        Random random = new Random(42);
+        String chars = "aZb9_X-y1 .Q$";
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = 1 + random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                sb.append(chars.charAt(random.nextInt(chars.length())));
+            }
+
+            String str = sb.toString();
+            assertEquals(str, baseline(str), MyStringUtils.toUnderLineStr(str));
+        }
+    }
+
+    @Test
+    public void cacheBound() {
+        for (int i = 0; i < 10000; i++) {
+            MyStringUtils.toSnakeCase("name" + i);
+            MyStringUtils.toCamelCase("name_" + i);
+        }
+
+        assertTrue(MyStringUtils.getCacheSize() <= 4096);
+        assertEquals("name_9999", MyStringUtils.toSnakeCase("name9999"));
+    }
+
+    /**
+     * 原来的实现，首字母改为直接转换成小写，不再通过正则替换
+     */
+    private static String baseline(String str) {
+        String result = Arrays.stream(StringUtils.splitByCharacterTypeCamelCase(str))
+                .reduce((s1, s2) -> s1.toLowerCase().concat("_").concat(s2.toLowerCase())).orElse("");
+        return StringUtils.isBlank(result) ? "" : Character.toLowerCase(result.charAt(0)) + result.substring(1);
+    }
+}